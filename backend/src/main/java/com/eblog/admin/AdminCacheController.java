@@ -0,0 +1,43 @@
+package com.eblog.admin;
+
+import com.eblog.api.common.ApiResponse;
+import com.eblog.post.RenderedHtmlCache;
+import com.eblog.post.ViewCountBuffer;
+import com.eblog.ratelimit.RateLimiter;
+import com.eblog.user.AuthorProfileCache;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin/caches")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class AdminCacheController {
+
+    private final RenderedHtmlCache renderedHtmlCache;
+    private final AuthorProfileCache authorProfileCache;
+    private final ViewCountBuffer viewCountBuffer;
+    private final RateLimiter rateLimiter;
+
+    public AdminCacheController(
+            RenderedHtmlCache renderedHtmlCache,
+            AuthorProfileCache authorProfileCache,
+            ViewCountBuffer viewCountBuffer,
+            RateLimiter rateLimiter) {
+        this.renderedHtmlCache = renderedHtmlCache;
+        this.authorProfileCache = authorProfileCache;
+        this.viewCountBuffer = viewCountBuffer;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @GetMapping
+    public ApiResponse<Map<String, Object>> stats() {
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("renderedHtml", renderedHtmlCache.stats());
+        res.put("authorProfiles", authorProfileCache.stats());
+        res.put("viewCounts", viewCountBuffer.stats());
+        res.put("rateLimiter", rateLimiter.stats());
+        return ApiResponse.ok(res);
+    }
+}
@@ -0,0 +1,40 @@
+package com.eblog.admin;
+
+import com.eblog.api.common.ApiResponse;
+import com.eblog.api.common.ErrorCode;
+import com.eblog.metadata.MetadataSyncRunner;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin/metadata")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class AdminMetadataController {
+
+    private final MetadataSyncRunner metadataSyncRunner;
+
+    public AdminMetadataController(MetadataSyncRunner metadataSyncRunner) {
+        this.metadataSyncRunner = metadataSyncRunner;
+    }
+
+    /**
+     * 在后台重算标签与分类的文章数，进度通过 GET 查询。
+     */
+    @PostMapping("/resync")
+    public ApiResponse<Map<String, Object>> resync() {
+        if (!metadataSyncRunner.start()) {
+            return ApiResponse.fail(ErrorCode.CONFLICT.getCode(), "重算任务正在运行");
+        }
+        return status();
+    }
+
+    @GetMapping("/resync")
+    public ApiResponse<Map<String, Object>> status() {
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("running", metadataSyncRunner.isRunning());
+        res.put("progress", metadataSyncRunner.getProgress());
+        return ApiResponse.ok(res);
+    }
+}
@@ -0,0 +1,51 @@
+package com.eblog.admin;
+
+import com.eblog.api.common.ApiResponse;
+import com.eblog.api.common.ErrorCode;
+import com.eblog.post.LuceneSearchIndex;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin/search")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class AdminSearchController {
+
+    private final LuceneSearchIndex luceneSearchIndex;
+
+    @Value("${app.search.engine:mysql}")
+    private String engine = "mysql";
+
+    public AdminSearchController(Optional<LuceneSearchIndex> luceneSearchIndex) {
+        this.luceneSearchIndex = luceneSearchIndex.orElse(null);
+    }
+
+    @GetMapping
+    public ApiResponse<Map<String, Object>> status() {
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("engine", engine);
+        if (luceneSearchIndex != null) {
+            res.put("documents", luceneSearchIndex.numDocs());
+            res.put("rebuilding", luceneSearchIndex.isRebuilding());
+        }
+        return ApiResponse.ok(res);
+    }
+
+    /**
+     * 在后台全量重建 Lucene 索引（分词规则变化或索引目录损坏后使用）。
+     */
+    @PostMapping("/rebuild")
+    public ApiResponse<Map<String, Object>> rebuild() {
+        if (luceneSearchIndex == null) {
+            return ApiResponse.fail(ErrorCode.BAD_REQUEST.getCode(), "当前搜索引擎不是 lucene");
+        }
+        if (!luceneSearchIndex.startRebuild()) {
+            return ApiResponse.fail(ErrorCode.CONFLICT.getCode(), "索引重建正在运行");
+        }
+        return status();
+    }
+}
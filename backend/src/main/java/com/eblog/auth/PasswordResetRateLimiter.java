@@ -1,37 +1,24 @@
 package com.eblog.auth;
 
-import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import com.eblog.ratelimit.RateLimitPolicy;
+import com.eblog.ratelimit.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class PasswordResetRateLimiter {
-  private static final long WINDOW_SECONDS = 900;
-  private static final int MAX_ATTEMPTS = 5;
+  private final RateLimiter rateLimiter;
+  private final RateLimitPolicy policy;
 
-  private final Map<String, Bucket> buckets = new ConcurrentHashMap<String, Bucket>();
-
-  public boolean tryConsume(String key) {
-    Bucket b = buckets.computeIfAbsent(key, k -> new Bucket());
-    return b.tryConsume();
+  public PasswordResetRateLimiter(
+      RateLimiter rateLimiter,
+      @Value("${app.rate-limit.password-reset.max-requests:5}") int maxRequests,
+      @Value("${app.rate-limit.password-reset.window-seconds:900}") long windowSeconds) {
+    this.rateLimiter = rateLimiter;
+    this.policy = RateLimitPolicy.of("password-reset", maxRequests, windowSeconds);
   }
 
-  private static class Bucket {
-    private long windowStart = 0;
-    private int count = 0;
-
-    synchronized boolean tryConsume() {
-      long now = Instant.now().getEpochSecond();
-      if (windowStart == 0 || (now - windowStart) >= WINDOW_SECONDS) {
-        windowStart = now;
-        count = 0;
-      }
-      if (count >= MAX_ATTEMPTS) {
-        return false;
-      }
-      count += 1;
-      return true;
-    }
+  public boolean tryConsume(String key) {
+    return rateLimiter.tryAcquire(policy, key);
   }
 }
@@ -44,6 +44,8 @@ public class SecurityConfig {
         .authorizeHttpRequests(auth -> auth
             .requestMatchers("/swagger-ui/**", "/api-docs/**", "/error").permitAll()
             .requestMatchers(HttpMethod.GET, "/api/v1/health").permitAll()
+            // Actuator 只在独立的管理端口（management.server.port，默认只监听本机）上提供，业务端口不映射这些路径
+            .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
             .requestMatchers(HttpMethod.GET, "/api/v1/authors/**").permitAll()
             .requestMatchers(HttpMethod.GET, "/api/v1/posts/{postId}/comments/**").permitAll()
             .requestMatchers(HttpMethod.GET, "/api/v1/posts/{postId}/likes").permitAll()
@@ -4,11 +4,15 @@ import com.eblog.api.common.ApiResponse;
 import com.eblog.api.common.ErrorCode;
 import com.eblog.comment.mapper.CommentMapper;
 import com.eblog.comment.entity.CommentEntity;
+import com.eblog.user.AuthorProfileResolver;
+import com.eblog.user.AuthorProfileResolver.AuthorProfile;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,9 +28,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class CommentController {
 
   private final CommentService commentService;
+  private final AuthorProfileResolver authorProfileResolver;
 
-  public CommentController(CommentService commentService) {
+  public CommentController(CommentService commentService, AuthorProfileResolver authorProfileResolver) {
     this.commentService = commentService;
+    this.authorProfileResolver = authorProfileResolver;
   }
 
   @GetMapping
@@ -36,12 +42,17 @@ public class CommentController {
       @RequestParam(name = "offset", required = false, defaultValue = "0") int offset) {
     Long postId = parsePostId(postIdStr);
     List<CommentEntity> comments = commentService.listPublicByPostId(postId, limit, offset);
+    Map<Long, AuthorProfile> authors = authorProfileResolver.resolve(
+        comments.stream().map(CommentEntity::getAuthorId).collect(Collectors.toList()));
     List<CommentDetail> res = new ArrayList<>();
     for (CommentEntity c : comments) {
+      AuthorProfile author = authors.get(c.getAuthorId());
       CommentDetail d = new CommentDetail();
       d.id = c.getId();
       d.postId = c.getPostId();
       d.authorId = c.getAuthorId();
+      d.authorName = author != null ? author.getNickname() : null;
+      d.authorAvatar = author != null ? author.getAvatarUrl() : null;
       d.content = c.getContent();
       d.createdAt = c.getCreatedAt();
       res.add(d);
@@ -99,6 +110,8 @@ public class CommentController {
     public Long postId;
     @JsonSerialize(using = ToStringSerializer.class)
     public Long authorId;
+    public String authorName;
+    public String authorAvatar;
     public String content;
     public LocalDateTime createdAt;
   }
@@ -8,11 +8,11 @@ import com.eblog.moderation.ModerationService;
 import com.eblog.moderation.OutboxService;
 import com.eblog.post.PostEntity;
 import com.eblog.post.PostMapper;
+import com.eblog.ratelimit.RateLimitPolicy;
+import com.eblog.ratelimit.RateLimiter;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -26,22 +26,26 @@ public class CommentService {
   private final PostMapper postMapper;
   private final OutboxService outboxService;
   private final ModerationService moderationService;
+  private final RateLimiter rateLimiter;
+  private final RateLimitPolicy rateLimitPolicy;
 
-  private static final Map<String, AtomicInteger> rateLimitMap = new ConcurrentHashMap<>();
   private static final int MIN_COMMENT_LENGTH = 1;
   private static final int MAX_COMMENT_LENGTH = 1000;
-  private static final int RATE_LIMIT_SECONDS = 60;
-  private static final int MAX_COMMENTS_PER_WINDOW = 3;
 
   public CommentService(
       CommentMapper commentMapper,
       PostMapper postMapper,
       OutboxService outboxService,
-      ModerationService moderationService) {
+      ModerationService moderationService,
+      RateLimiter rateLimiter,
+      @Value("${app.rate-limit.comment.max-requests:3}") int maxRequests,
+      @Value("${app.rate-limit.comment.window-seconds:60}") long windowSeconds) {
     this.commentMapper = commentMapper;
     this.postMapper = postMapper;
     this.outboxService = outboxService;
     this.moderationService = moderationService;
+    this.rateLimiter = rateLimiter;
+    this.rateLimitPolicy = RateLimitPolicy.of("comment", maxRequests, windowSeconds);
   }
 
   public List<CommentEntity> listPublicByPostId(Long postId, int limit, int offset) {
@@ -89,6 +93,7 @@ public class CommentService {
     comment.setCreatedAt(LocalDateTime.now());
     comment.setUpdatedAt(LocalDateTime.now());
     commentMapper.insert(comment);
+    postMapper.adjustCommentCount(postId, 1);
 
     if (outboxService != null) {
       String deduplicationKey = "v-" + comment.getUpdatedAt().atZone(java.time.ZoneId.systemDefault()).toEpochSecond();
@@ -114,33 +119,21 @@ public class CommentService {
       return ErrorCode.FORBIDDEN;
     }
 
-    commentMapper.deleteById(commentId);
+    if (commentMapper.deleteById(commentId) > 0 && isCounted(comment.getStatus(), comment.getModerationStatus())) {
+      postMapper.adjustCommentCount(comment.getPostId(), -1);
+    }
     return null;
   }
 
-  private boolean checkRateLimit(Long userId) {
-    String key = "comment:" + userId;
-    AtomicInteger count = rateLimitMap.computeIfAbsent(key, k -> new AtomicInteger(0));
-
-    if (count.incrementAndGet() > MAX_COMMENTS_PER_WINDOW) {
-      count.decrementAndGet();
-      return false;
-    }
+  /**
+   * 评论是否计入 posts.comment_count：与公开列表口径一致（已发布且未被拒绝）。
+   */
+  public static boolean isCounted(String status, String moderationStatus) {
+    return "PUBLISHED".equals(status) && !"REJECTED".equals(moderationStatus);
+  }
 
-    new Thread(() -> {
-      try {
-        Thread.sleep(RATE_LIMIT_SECONDS * 1000);
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-      } finally {
-        count.decrementAndGet();
-        if (count.get() == 0) {
-          rateLimitMap.remove(key);
-        }
-      }
-    }).start();
-
-    return true;
+  private boolean checkRateLimit(Long userId) {
+    return rateLimiter.tryAcquire(rateLimitPolicy, String.valueOf(userId));
   }
 
   private Long currentUserId() {
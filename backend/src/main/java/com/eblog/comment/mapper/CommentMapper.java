@@ -3,10 +3,12 @@
  import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
  import com.eblog.comment.entity.CommentEntity;
+ import java.util.Collection;
  import java.util.List;
  import org.apache.ibatis.annotations.Mapper;
  import org.apache.ibatis.annotations.Param;
  import org.apache.ibatis.annotations.Select;
+ import org.apache.ibatis.annotations.Update;
 
 @Mapper
 public interface CommentMapper extends BaseMapper<CommentEntity> {
@@ -29,4 +31,11 @@ public interface CommentMapper extends BaseMapper<CommentEntity> {
         .last("LIMIT " + Math.max(limit, 1) + " OFFSET " + Math.max(offset, 0))
     );
   }
+
+  // 审核 worker 批量写回：同一结论的评论合并为一条语句
+  @Update("<script>" +
+      "UPDATE comments SET moderation_status = #{status}, updated_at = NOW() WHERE id IN " +
+      "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+      "</script>")
+  int updateModerationStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") String status);
 }
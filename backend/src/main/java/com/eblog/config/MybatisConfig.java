@@ -1,10 +1,12 @@
 package com.eblog.config;
 
 import javax.sql.DataSource;
+import org.apache.ibatis.annotations.Mapper;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
-@MapperScan("com.eblog")
+// 只注册带 @Mapper 的接口，避免 RateLimitStore 等普通接口被当作 mapper 生成代理
+@MapperScan(basePackages = "com.eblog", annotationClass = Mapper.class)
 public class MybatisConfig {}
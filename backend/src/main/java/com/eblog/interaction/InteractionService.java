@@ -8,10 +8,10 @@ import com.eblog.interaction.mapper.PostLikeMapper;
 import com.eblog.interaction.mapper.PostFavoriteMapper;
 import com.eblog.post.PostEntity;
 import com.eblog.post.PostMapper;
+import com.eblog.ratelimit.RateLimitPolicy;
+import com.eblog.ratelimit.RateLimiter;
 import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,18 +24,21 @@ public class InteractionService {
   private final PostLikeMapper postLikeMapper;
   private final PostFavoriteMapper postFavoriteMapper;
   private final PostMapper postMapper;
-
-  private static final Map<String, AtomicInteger> likeRateLimitMap = new ConcurrentHashMap<>();
-  private static final int RATE_LIMIT_SECONDS = 60;
-  private static final int MAX_LIKES_PER_WINDOW = 10;
+  private final RateLimiter rateLimiter;
+  private final RateLimitPolicy rateLimitPolicy;
 
   public InteractionService(
       PostLikeMapper postLikeMapper,
       PostFavoriteMapper postFavoriteMapper,
-      PostMapper postMapper) {
+      PostMapper postMapper,
+      RateLimiter rateLimiter,
+      @Value("${app.rate-limit.like.max-requests:10}") int maxRequests,
+      @Value("${app.rate-limit.like.window-seconds:60}") long windowSeconds) {
     this.postLikeMapper = postLikeMapper;
     this.postFavoriteMapper = postFavoriteMapper;
     this.postMapper = postMapper;
+    this.rateLimiter = rateLimiter;
+    this.rateLimitPolicy = RateLimitPolicy.of("like", maxRequests, windowSeconds);
   }
 
   @Transactional
@@ -63,8 +66,9 @@ public class InteractionService {
     like.setUserId(userId);
     like.setCreatedAt(LocalDateTime.now());
     postLikeMapper.insert(like);
+    postMapper.adjustLikeCount(postId, 1);
 
-    return LikeResult.success(postLikeMapper.countByPostId(postId));
+    return LikeResult.success(getLikeCount(postId));
   }
 
   @Transactional
@@ -74,10 +78,13 @@ public class InteractionService {
       return ErrorCode.UNAUTHORIZED;
     }
 
-    postLikeMapper.delete(new LambdaQueryWrapper<PostLikeEntity>()
+    int deleted = postLikeMapper.delete(new LambdaQueryWrapper<PostLikeEntity>()
       .eq(PostLikeEntity::getPostId, postId)
       .eq(PostLikeEntity::getUserId, userId)
     );
+    if (deleted > 0) {
+      postMapper.adjustLikeCount(postId, -deleted);
+    }
     return null;
   }
 
@@ -102,6 +109,7 @@ public class InteractionService {
     favorite.setUserId(userId);
     favorite.setCreatedAt(LocalDateTime.now());
     postFavoriteMapper.insert(favorite);
+    postMapper.adjustFavoriteCount(postId, 1);
 
     return null;
   }
@@ -113,12 +121,16 @@ public class InteractionService {
       return ErrorCode.UNAUTHORIZED;
     }
 
-    postFavoriteMapper.deleteByPostAndUser(postId, userId);
+    int deleted = postFavoriteMapper.deleteByPostAndUser(postId, userId);
+    if (deleted > 0) {
+      postMapper.adjustFavoriteCount(postId, -deleted);
+    }
     return null;
   }
 
   public int getLikeCount(Long postId) {
-    return postLikeMapper.countByPostId(postId);
+    Integer count = postMapper.selectLikeCount(postId);
+    return count != null ? count : 0;
   }
 
   public boolean isLikedByUser(Long postId, Long userId) {
@@ -136,28 +148,7 @@ public class InteractionService {
   }
 
   private boolean checkLikeRateLimit(Long userId) {
-    String key = "like:" + userId;
-    AtomicInteger count = likeRateLimitMap.computeIfAbsent(key, k -> new AtomicInteger(0));
-
-    if (count.incrementAndGet() > MAX_LIKES_PER_WINDOW) {
-      count.decrementAndGet();
-      return false;
-    }
-
-    new Thread(() -> {
-      try {
-        Thread.sleep(RATE_LIMIT_SECONDS * 1000);
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-      } finally {
-        count.decrementAndGet();
-        if (count.get() == 0) {
-          likeRateLimitMap.remove(key);
-        }
-      }
-    }).start();
-
-    return true;
+    return rateLimiter.tryAcquire(rateLimitPolicy, String.valueOf(userId));
   }
 
   private Long currentUserId() {
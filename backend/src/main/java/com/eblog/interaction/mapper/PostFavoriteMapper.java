@@ -16,8 +16,8 @@ public interface PostFavoriteMapper extends BaseMapper<PostFavoriteEntity> {
     ) > 0;
   }
 
-  default void deleteByPostAndUser(Long postId, Long userId) {
-    delete(new LambdaQueryWrapper<PostFavoriteEntity>()
+  default int deleteByPostAndUser(Long postId, Long userId) {
+    return delete(new LambdaQueryWrapper<PostFavoriteEntity>()
       .eq(PostFavoriteEntity::getPostId, postId)
       .eq(PostFavoriteEntity::getUserId, userId)
     );
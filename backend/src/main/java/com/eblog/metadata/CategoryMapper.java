@@ -1,8 +1,41 @@
 package com.eblog.metadata;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import java.util.List;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 @Mapper
 public interface CategoryMapper extends BaseMapper<CategoryEntity> {
+
+    // 文章计数增量维护：GREATEST 防止重复扣减导致负数
+    @Update("UPDATE categories SET post_count = GREATEST(COALESCE(post_count, 0) + #{delta}, 0) WHERE name = #{name}")
+    int adjustPostCount(@Param("name") String name, @Param("delta") int delta);
+
+    // 名称或 slug 已存在时不插入
+    @Insert("INSERT IGNORE INTO categories (name, slug, post_count, created_at) VALUES (#{name}, #{slug}, #{postCount}, NOW())")
+    int insertIgnore(@Param("name") String name, @Param("slug") String slug, @Param("postCount") int postCount);
+
+    // 全量重算：只取对比所需的列
+    @Select("SELECT id, name, post_count FROM categories")
+    List<CategoryEntity> selectPostCounts();
+
+    // 全量重算：一条语句写回一批计数
+    @Update("<script>" +
+        "UPDATE categories SET post_count = CASE id " +
+        "<foreach collection='rows' item='r'> WHEN #{r.id} THEN #{r.postCount} </foreach> " +
+        "END WHERE id IN " +
+        "<foreach collection='rows' item='r' open='(' separator=',' close=')'>#{r.id}</foreach>" +
+        "</script>")
+    int updatePostCounts(@Param("rows") List<CategoryEntity> rows);
+
+    // 全量重算：批量补建缺失的行，名称或 slug 冲突的行被忽略
+    @Insert("<script>" +
+        "INSERT IGNORE INTO categories (name, slug, post_count, created_at) VALUES " +
+        "<foreach collection='rows' item='r' separator=','>(#{r.name}, #{r.slug}, #{r.postCount}, NOW())</foreach>" +
+        "</script>")
+    int insertIgnoreBatch(@Param("rows") List<CategoryEntity> rows);
 }
@@ -0,0 +1,136 @@
+package com.eblog.metadata;
+
+import com.eblog.post.PostTag;
+import com.eblog.post.PostTagMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.stereotype.Service;
+
+/**
+ * 增量维护 tags / categories 的 post_count。
+ *
+ * <p>计数口径与公开列表一致：已发布且审核通过（{@link #isCounted}）。文章进出该口径时按其全部标签与分类加减，
+ * 保持在口径内时只按标签、分类的差异加减。由调用方在写文章的同一事务内调用；
+ * 偶发偏差由后台的全量重算（MetadataSyncRunner）修正。
+ */
+@Service
+public class MetadataCountService {
+    private final TagMapper tagMapper;
+    private final CategoryMapper categoryMapper;
+    private final PostTagMapper postTagMapper;
+
+    public MetadataCountService(TagMapper tagMapper, CategoryMapper categoryMapper, PostTagMapper postTagMapper) {
+        this.tagMapper = tagMapper;
+        this.categoryMapper = categoryMapper;
+        this.postTagMapper = postTagMapper;
+    }
+
+    public static boolean isCounted(String status, String moderationStatus) {
+        return "PUBLISHED".equals(status) && "APPROVED".equals(moderationStatus);
+    }
+
+    public void postEntered(Long postId, String category) {
+        adjustPosts(Collections.singletonMap(postId, category), 1);
+    }
+
+    public void postLeft(Long postId, String category) {
+        adjustPosts(Collections.singletonMap(postId, category), -1);
+    }
+
+    /**
+     * 一批文章进入计数口径。
+     *
+     * @param postCategories 文章 ID -> 分类
+     */
+    public void postsEntered(Map<Long, String> postCategories) {
+        adjustPosts(postCategories, 1);
+    }
+
+    public void postsLeft(Map<Long, String> postCategories) {
+        adjustPosts(postCategories, -1);
+    }
+
+    /**
+     * 计数口径内的文章修改了标签。
+     */
+    public void tagsChanged(Collection<Long> added, Collection<Long> removed) {
+        if (added != null && !added.isEmpty()) {
+            tagMapper.adjustPostCount(added, 1);
+        }
+        if (removed != null && !removed.isEmpty()) {
+            tagMapper.adjustPostCount(removed, -1);
+        }
+    }
+
+    /**
+     * 计数口径内的文章修改了分类。
+     */
+    public void categoryChanged(String before, String after) {
+        if (Objects.equals(normalizeCategory(before), normalizeCategory(after))) {
+            return;
+        }
+        adjustCategory(before, -1);
+        adjustCategory(after, 1);
+    }
+
+    private void adjustPosts(Map<Long, String> postCategories, int sign) {
+        if (postCategories.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> tagCounts = new HashMap<>();
+        for (PostTag pt : postTagMapper.selectByPostIds(postCategories.keySet())) {
+            tagCounts.merge(pt.getTagId(), 1, Integer::sum);
+        }
+        // 同一增量的标签合并为一条 UPDATE
+        Map<Integer, List<Long>> byCount = new HashMap<>();
+        for (Map.Entry<Long, Integer> e : tagCounts.entrySet()) {
+            byCount.computeIfAbsent(e.getValue(), k -> new ArrayList<>()).add(e.getKey());
+        }
+        for (Map.Entry<Integer, List<Long>> e : byCount.entrySet()) {
+            tagMapper.adjustPostCount(e.getValue(), e.getKey() * sign);
+        }
+
+        Map<String, Integer> categoryCounts = new HashMap<>();
+        for (String category : postCategories.values()) {
+            String name = normalizeCategory(category);
+            if (name != null) {
+                categoryCounts.merge(name, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<String, Integer> e : categoryCounts.entrySet()) {
+            adjustCategory(e.getKey(), e.getValue() * sign);
+        }
+    }
+
+    /**
+     * 分类按名称加减；文章引用了不存在的分类时自动创建（slug 冲突退回随机 slug）。
+     */
+    private void adjustCategory(String category, int delta) {
+        String name = normalizeCategory(category);
+        if (name == null || delta == 0) {
+            return;
+        }
+        if (categoryMapper.adjustPostCount(name, delta) > 0 || delta < 0) {
+            return;
+        }
+        if (categoryMapper.insertIgnore(name, SlugGenerator.slugify(name), delta) > 0) {
+            return;
+        }
+        // 并发插入了同名分类，或 slug 被其他分类占用
+        if (categoryMapper.adjustPostCount(name, delta) == 0) {
+            categoryMapper.insertIgnore(name, SlugGenerator.randomSlug(), delta);
+        }
+    }
+
+    private static String normalizeCategory(String category) {
+        if (category == null || category.trim().isEmpty()) {
+            return null;
+        }
+        return category.trim();
+    }
+}
@@ -1,157 +1,298 @@
 package com.eblog.metadata;
 
-import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.eblog.post.PostEntity;
 import com.eblog.post.PostMapper;
 import com.eblog.post.TagParser;
-import org.springframework.boot.CommandLineRunner;
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
+/**
+ * 标签与分类 post_count 的全量重算。
+ *
+ * <p>日常计数由 {@link MetadataCountService} 增量维护，本任务只用于修正偏差：由管理员手动触发，
+ * 或配置 app.metadata.resync-on-startup 在启动完成后于后台线程执行，不阻塞启动。
+ *
+ * <p>读取阶段用 MyBatis Cursor 在一个只读事务内流式遍历已公开文章的 tags_csv、category 两列，
+ * 内存只与标签、分类的种类数相关，与文章数无关；写回阶段只改有偏差的行，按批合并为一条语句，
+ * 每批独立提交，避免百万级数据下的长事务。进度见 {@link #getProgress()}。
+ */
 @Component
-public class MetadataSyncRunner implements CommandLineRunner {
+public class MetadataSyncRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MetadataSyncRunner.class);
 
     private final PostMapper postMapper;
     private final CategoryMapper categoryMapper;
     private final TagMapper tagMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Progress progress;
+
+    @Value("${app.metadata.resync-on-startup:false}")
+    private boolean resyncOnStartup = false;
+
+    @Value("${app.metadata.resync-batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${app.metadata.resync-progress-every:100000}")
+    private int progressEvery = 100000;
 
-    public MetadataSyncRunner(PostMapper postMapper, CategoryMapper categoryMapper, TagMapper tagMapper) {
+    public MetadataSyncRunner(
+            PostMapper postMapper,
+            CategoryMapper categoryMapper,
+            TagMapper tagMapper,
+            TransactionTemplate transactionTemplate) {
         this.postMapper = postMapper;
         this.categoryMapper = categoryMapper;
         this.tagMapper = tagMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (resyncOnStartup) {
+            start();
+        }
     }
 
-    @Override
-    @Transactional
-    public void run(String... args) throws Exception {
-        // Select all PUBLISHED and APPROVED posts
-        List<PostEntity> posts = postMapper.selectList(
-            Wrappers.<PostEntity>lambdaQuery()
-                .eq(PostEntity::getStatus, "PUBLISHED")
-                .eq(PostEntity::getModerationStatus, "APPROVED")
-        );
-
-        Map<String, Integer> categoryCounts = new HashMap<>();
-        Map<String, Integer> tagCounts = new HashMap<>();
-
-        for (PostEntity post : posts) {
-            // Category
-            String cat = post.getCategory();
-            if (cat != null && !cat.trim().isEmpty()) {
-                categoryCounts.merge(cat.trim(), 1, Integer::sum);
+    /**
+     * 在后台线程启动一次重算；已有重算在运行时返回 false。
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread t = new Thread(() -> {
+            try {
+                resync();
+            } catch (Exception e) {
+                log.error("Error resyncing tag/category post counts", e);
+            } finally {
+                running.set(false);
             }
+        }, "metadata-resync");
+        t.setDaemon(true);
+        t.start();
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * 最近一次重算的进度，从未运行过时返回 null。
+     */
+    public Progress getProgress() {
+        return progress;
+    }
 
-            // Tags
-            if (post.getTagsCsv() != null) {
-                List<String> tags = TagParser.parseTags(post.getTagsCsv());
-                for (String tag : tags) {
-                    tagCounts.merge(tag, 1, Integer::sum);
+    public Progress resync() {
+        Progress p = new Progress();
+        progress = p;
+        try {
+            Map<String, Integer> categoryCounts = new HashMap<>();
+            Map<String, Integer> tagCounts = new HashMap<>();
+            scan(p, categoryCounts, tagCounts);
+
+            p.phase = "WRITING";
+            p.categoriesWritten = syncCategories(categoryCounts);
+            p.tagsWritten = syncTags(tagCounts);
+            p.phase = "DONE";
+            log.info("Resynced post counts from {} posts: {} category rows and {} tag rows corrected",
+                p.postsScanned, p.categoriesWritten, p.tagsWritten);
+        } catch (RuntimeException e) {
+            p.phase = "FAILED";
+            p.error = e.getMessage();
+            throw e;
+        } finally {
+            p.finishedAt = LocalDateTime.now();
+        }
+        return p;
+    }
+
+    private void scan(Progress p, Map<String, Integer> categoryCounts, Map<String, Integer> tagCounts) {
+        int every = Math.max(progressEvery, 1);
+        // Cursor 只能在打开它的 SqlSession 内遍历，需要包在事务里
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Cursor<PostEntity> cursor = postMapper.streamCountedMetadata()) {
+                for (PostEntity post : cursor) {
+                    String cat = post.getCategory();
+                    if (cat != null && !cat.trim().isEmpty()) {
+                        categoryCounts.merge(cat.trim(), 1, Integer::sum);
+                    }
+                    for (String tag : TagParser.parseTags(post.getTagsCsv())) {
+                        tagCounts.merge(tag, 1, Integer::sum);
+                    }
+                    if (++p.postsScanned % every == 0) {
+                        log.info("Metadata resync scanned {} posts", p.postsScanned);
+                    }
                 }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // 已有行只改计数，不覆盖管理员维护的 slug；新行的 slug 与 TagService/CategoryService 一致
+    private int syncCategories(Map<String, Integer> counts) {
+        List<CategoryEntity> changed = new ArrayList<>();
+        for (CategoryEntity e : categoryMapper.selectPostCounts()) {
+            Integer count = e.getName() != null ? counts.remove(e.getName().trim()) : null;
+            int target = count != null ? count : 0;
+            if (e.getPostCount() == null || e.getPostCount() != target) {
+                e.setPostCount(target);
+                changed.add(e);
             }
         }
+        List<CategoryEntity> missing = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            CategoryEntity e = new CategoryEntity();
+            e.setName(entry.getKey());
+            e.setSlug(SlugGenerator.slugify(entry.getKey()));
+            e.setPostCount(entry.getValue());
+            missing.add(e);
+        }
 
-        syncCategories(categoryCounts);
-        syncTags(tagCounts);
+        int written = 0;
+        for (List<CategoryEntity> chunk : chunks(changed)) {
+            written += inTransaction(() -> categoryMapper.updatePostCounts(chunk));
+        }
+        for (List<CategoryEntity> chunk : chunks(missing)) {
+            written += inTransaction(() -> {
+                int inserted = categoryMapper.insertIgnoreBatch(chunk);
+                if (inserted == chunk.size()) {
+                    return inserted;
+                }
+                // 有行因 slug 冲突被忽略：逐行重试，仍冲突的换随机 slug；名称已存在的两次都被忽略
+                inserted = 0;
+                for (CategoryEntity e : chunk) {
+                    if (categoryMapper.insertIgnoreBatch(List.of(e)) == 0) {
+                        e.setSlug(SlugGenerator.randomSlug());
+                        inserted += categoryMapper.insertIgnoreBatch(List.of(e));
+                    }
+                }
+                return inserted;
+            });
+        }
+        return written;
     }
 
-    private void syncCategories(Map<String, Integer> counts) {
-        List<CategoryEntity> existing = categoryMapper.selectList(null);
-        Map<String, CategoryEntity> existingMap = new HashMap<>();
-        for (CategoryEntity e : existing) {
-            existingMap.put(e.getName(), e);
+    private int syncTags(Map<String, Integer> counts) {
+        List<TagEntity> changed = new ArrayList<>();
+        for (TagEntity e : tagMapper.selectPostCounts()) {
+            String name = TagParser.normalize(e.getName());
+            Integer count = name != null ? counts.remove(name) : null;
+            int target = count != null ? count : 0;
+            if (e.getPostCount() == null || e.getPostCount() != target) {
+                e.setPostCount(target);
+                changed.add(e);
+            }
         }
-
-        // Update existing or Insert new
+        List<TagEntity> missing = new ArrayList<>();
         for (Map.Entry<String, Integer> entry : counts.entrySet()) {
-            String name = entry.getKey();
-            Integer count = entry.getValue();
-            
-            if (existingMap.containsKey(name)) {
-                CategoryEntity e = existingMap.get(name);
-                String slug = TagParser.slugify(name);
-                boolean changed = false;
-                
-                if (!count.equals(e.getPostCount())) {
-                    e.setPostCount(count);
-                    changed = true;
-                }
-                if (slug != null && !slug.equals(e.getSlug())) {
-                    e.setSlug(slug);
-                    changed = true;
+            TagEntity e = new TagEntity();
+            e.setName(entry.getKey());
+            e.setSlug(SlugGenerator.slugify(entry.getKey()));
+            e.setPostCount(entry.getValue());
+            missing.add(e);
+        }
+
+        int written = 0;
+        for (List<TagEntity> chunk : chunks(changed)) {
+            written += inTransaction(() -> tagMapper.updatePostCounts(chunk));
+        }
+        for (List<TagEntity> chunk : chunks(missing)) {
+            written += inTransaction(() -> {
+                int inserted = tagMapper.insertIgnoreBatch(chunk);
+                if (inserted == chunk.size()) {
+                    return inserted;
                 }
-                
-                if (changed) {
-                    categoryMapper.updateById(e);
+                inserted = 0;
+                for (TagEntity e : chunk) {
+                    if (tagMapper.insertIgnoreBatch(List.of(e)) == 0) {
+                        e.setSlug(SlugGenerator.randomSlug());
+                        inserted += tagMapper.insertIgnoreBatch(List.of(e));
+                    }
                 }
-                existingMap.remove(name);
-            } else {
-                CategoryEntity e = new CategoryEntity();
-                e.setName(name);
-                e.setSlug(TagParser.slugify(name));
-                e.setPostCount(count);
-                e.setCreatedAt(LocalDateTime.now());
-                categoryMapper.insert(e);
-            }
+                return inserted;
+            });
         }
+        return written;
+    }
 
-        // Set remaining to 0
-        for (CategoryEntity e : existingMap.values()) {
-            if (e.getPostCount() != 0) {
-                e.setPostCount(0);
-                categoryMapper.updateById(e);
-            }
+    private <T> List<List<T>> chunks(List<T> rows) {
+        int size = Math.min(Math.max(batchSize, 1), 5000);
+        List<List<T>> res = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i += size) {
+            res.add(rows.subList(i, Math.min(i + size, rows.size())));
         }
+        return res;
+    }
+
+    private int inTransaction(Supplier<Integer> work) {
+        Integer n = transactionTemplate.execute(status -> work.get());
+        return n != null ? n : 0;
     }
 
-    private void syncTags(Map<String, Integer> counts) {
-        List<TagEntity> existing = tagMapper.selectList(null);
-        Map<String, TagEntity> existingMap = new HashMap<>();
-        for (TagEntity e : existing) {
-            existingMap.put(e.getName(), e);
+    /**
+     * 一次重算的进度。只由重算线程写入。
+     */
+    public static final class Progress {
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile LocalDateTime finishedAt;
+        /** SCANNING、WRITING、DONE、FAILED */
+        private volatile String phase = "SCANNING";
+        private volatile long postsScanned;
+        private volatile int categoriesWritten;
+        private volatile int tagsWritten;
+        private volatile String error;
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
         }
 
-        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
-            String name = entry.getKey();
-            Integer count = entry.getValue();
-            
-            if (existingMap.containsKey(name)) {
-                TagEntity e = existingMap.get(name);
-                String slug = TagParser.slugify(name);
-                boolean changed = false;
-
-                if (!count.equals(e.getPostCount())) {
-                    e.setPostCount(count);
-                    changed = true;
-                }
-                if (slug != null && !slug.equals(e.getSlug())) {
-                    e.setSlug(slug);
-                    changed = true;
-                }
+        public LocalDateTime getFinishedAt() {
+            return finishedAt;
+        }
 
-                if (changed) {
-                    tagMapper.updateById(e);
-                }
-                existingMap.remove(name);
-            } else {
-                TagEntity e = new TagEntity();
-                e.setName(name);
-                e.setSlug(TagParser.slugify(name));
-                e.setPostCount(count);
-                e.setCreatedAt(LocalDateTime.now());
-                tagMapper.insert(e);
-            }
+        public String getPhase() {
+            return phase;
         }
 
-        for (TagEntity e : existingMap.values()) {
-            if (e.getPostCount() != 0) {
-                e.setPostCount(0);
-                tagMapper.updateById(e);
-            }
+        public long getPostsScanned() {
+            return postsScanned;
+        }
+
+        public int getCategoriesWritten() {
+            return categoriesWritten;
+        }
+
+        public int getTagsWritten() {
+            return tagsWritten;
+        }
+
+        public String getError() {
+            return error;
         }
     }
 }
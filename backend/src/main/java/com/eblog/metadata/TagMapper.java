@@ -1,8 +1,55 @@
 package com.eblog.metadata;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import java.util.Collection;
+import java.util.List;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 @Mapper
 public interface TagMapper extends BaseMapper<TagEntity> {
+
+    @Select("<script>" +
+        "SELECT id, name FROM tags WHERE name IN " +
+        "<foreach collection='names' item='name' open='(' separator=',' close=')'>#{name}</foreach>" +
+        "</script>")
+    List<TagEntity> selectByNames(@Param("names") Collection<String> names);
+
+    // 按列排序规则比较名称（与 uk_tags_name 一致），café 与 cafe、全角与半角字母视为同一标签
+    @Select("SELECT id FROM tags WHERE name = #{name} LIMIT 1")
+    Long selectIdByName(@Param("name") String name);
+
+    // 名称或 slug 已存在时不插入，由调用方按名称重新查询
+    @Insert("INSERT IGNORE INTO tags (name, slug, post_count, created_at) VALUES (#{name}, #{slug}, 0, NOW())")
+    int insertIgnore(@Param("name") String name, @Param("slug") String slug);
+
+    // 文章计数增量维护：GREATEST 防止重复扣减导致负数
+    @Update("<script>" +
+        "UPDATE tags SET post_count = GREATEST(COALESCE(post_count, 0) + #{delta}, 0) WHERE id IN " +
+        "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+        "</script>")
+    int adjustPostCount(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
+    // 全量重算：只取对比所需的列
+    @Select("SELECT id, name, post_count FROM tags")
+    List<TagEntity> selectPostCounts();
+
+    // 全量重算：一条语句写回一批计数
+    @Update("<script>" +
+        "UPDATE tags SET post_count = CASE id " +
+        "<foreach collection='rows' item='r'> WHEN #{r.id} THEN #{r.postCount} </foreach> " +
+        "END WHERE id IN " +
+        "<foreach collection='rows' item='r' open='(' separator=',' close=')'>#{r.id}</foreach>" +
+        "</script>")
+    int updatePostCounts(@Param("rows") List<TagEntity> rows);
+
+    // 全量重算：批量补建缺失的行，名称或 slug 冲突的行被忽略
+    @Insert("<script>" +
+        "INSERT IGNORE INTO tags (name, slug, post_count, created_at) VALUES " +
+        "<foreach collection='rows' item='r' separator=','>(#{r.name}, #{r.slug}, #{r.postCount}, NOW())</foreach>" +
+        "</script>")
+    int insertIgnoreBatch(@Param("rows") List<TagEntity> rows);
 }
@@ -4,6 +4,7 @@
  import com.eblog.api.common.ApiResponse;
 import com.eblog.api.common.ErrorCode;
 import com.eblog.moderation.entity.AuditLogEntity;
+import com.eblog.moderation.entity.ModerationRuleSetEntity;
  import com.eblog.moderation.enums.AuditAction;
  import com.eblog.moderation.enums.ModerationStatus;
  import com.eblog.moderation.mapper.OutboxMapper;
@@ -35,16 +36,22 @@ public class AdminModerationController {
   private final PostMapper postMapper;
   private final UserMapper userMapper;
   private final CommentMapper commentMapper;
+  private final ModerationRuleService moderationRuleService;
+  private final RuleEngine ruleEngine;
 
   public AdminModerationController(
       ModerationService moderationService,
       PostMapper postMapper,
       UserMapper userMapper,
-      CommentMapper commentMapper) {
+      CommentMapper commentMapper,
+      ModerationRuleService moderationRuleService,
+      RuleEngine ruleEngine) {
     this.moderationService = moderationService;
     this.postMapper = postMapper;
     this.userMapper = userMapper;
     this.commentMapper = commentMapper;
+    this.moderationRuleService = moderationRuleService;
+    this.ruleEngine = ruleEngine;
   }
 
   @GetMapping("/review-queue")
@@ -128,6 +135,40 @@ public class AdminModerationController {
     return ApiResponse.ok(null);
   }
 
+  @GetMapping("/rules")
+  public ApiResponse<RuleSetView> getRules(@RequestParam(defaultValue = "20") int limit) {
+    if (!isAdmin()) {
+      return ApiResponse.fail(ErrorCode.FORBIDDEN.getCode(), ErrorCode.FORBIDDEN.getMessage());
+    }
+    RuleSetView view = new RuleSetView();
+    view.activeVersion = ruleEngine.getRuleVersion();
+    view.sensitiveWordCount = ruleEngine.getSensitiveWordCount();
+    ModerationRuleSetEntity latest = moderationRuleService.current();
+    if (latest != null && latest.getSensitiveWords() != null && !latest.getSensitiveWords().isEmpty()) {
+      view.sensitiveWords = List.of(latest.getSensitiveWords().split("\n"));
+    }
+    view.maxExternalLinks = latest != null ? latest.getMaxExternalLinks() : null;
+    view.history = moderationRuleService.history(limit);
+    return ApiResponse.ok(view);
+  }
+
+  @PostMapping("/rules")
+  public ApiResponse<ModerationRuleSetEntity> publishRules(@RequestBody RuleSetRequest request) {
+    if (!isAdmin()) {
+      return ApiResponse.fail(ErrorCode.FORBIDDEN.getCode(), ErrorCode.FORBIDDEN.getMessage());
+    }
+    if (request == null || request.getSensitiveWords() == null || request.getMaxExternalLinks() == null) {
+      return ApiResponse.fail(ErrorCode.BAD_REQUEST.getCode(), ErrorCode.BAD_REQUEST.getMessage());
+    }
+    ModerationRuleSetEntity published = moderationRuleService.publish(
+      request.getSensitiveWords(), request.getMaxExternalLinks(), request.getNote(), currentUserId());
+    if (published == null) {
+      return ApiResponse.fail(ErrorCode.CONFLICT.getCode(), ErrorCode.CONFLICT.getMessage());
+    }
+    published.setSensitiveWords(null);
+    return ApiResponse.ok(published);
+  }
+
   private boolean isAdmin() {
     Authentication auth = SecurityContextHolder.getContext().getAuthentication();
     if (auth == null || auth.getAuthorities() == null) {
@@ -182,6 +223,44 @@ public class AdminModerationController {
     }
   }
 
+  public static class RuleSetRequest {
+    private List<String> sensitiveWords;
+    private Integer maxExternalLinks;
+    private String note;
+
+    public List<String> getSensitiveWords() {
+      return sensitiveWords;
+    }
+
+    public void setSensitiveWords(List<String> sensitiveWords) {
+      this.sensitiveWords = sensitiveWords;
+    }
+
+    public Integer getMaxExternalLinks() {
+      return maxExternalLinks;
+    }
+
+    public void setMaxExternalLinks(Integer maxExternalLinks) {
+      this.maxExternalLinks = maxExternalLinks;
+    }
+
+    public String getNote() {
+      return note;
+    }
+
+    public void setNote(String note) {
+      this.note = note;
+    }
+  }
+
+  public static class RuleSetView {
+    public int activeVersion;
+    public int sensitiveWordCount;
+    public List<String> sensitiveWords = List.of();
+    public Integer maxExternalLinks;
+    public List<ModerationRuleSetEntity> history;
+  }
+
   public static class ModerationItem {
     private Long postId;
     private String title;
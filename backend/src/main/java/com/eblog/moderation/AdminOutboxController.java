@@ -0,0 +1,153 @@
+package com.eblog.moderation;
+
+import com.eblog.api.common.ApiResponse;
+import com.eblog.api.common.ErrorCode;
+import com.eblog.moderation.entity.OutboxEntity;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 审核任务死信的查看与重放。
+ */
+@RestController
+@RequestMapping("/api/v1/admin/moderation/outbox")
+public class AdminOutboxController {
+
+  private final OutboxService outboxService;
+  private final WorkerService workerService;
+
+  public AdminOutboxController(OutboxService outboxService, WorkerService workerService) {
+    this.outboxService = outboxService;
+    this.workerService = workerService;
+  }
+
+  @GetMapping("/dead-letters")
+  public ApiResponse<List<DeadLetterItem>> listDeadLetters(
+      @RequestParam(required = false) String entityType,
+      @RequestParam(required = false) String errorClass,
+      @RequestParam(required = false) Long afterId,
+      @RequestParam(defaultValue = "50") int limit) {
+    if (!isAdmin()) {
+      return ApiResponse.fail(ErrorCode.FORBIDDEN.getCode(), ErrorCode.FORBIDDEN.getMessage());
+    }
+    List<DeadLetterItem> items = new ArrayList<>();
+    for (OutboxEntity task : outboxService.listDeadLetters(entityType, errorClass, afterId, limit)) {
+      items.add(DeadLetterItem.of(task));
+    }
+    return ApiResponse.ok(items);
+  }
+
+  @GetMapping("/dead-letters/summary")
+  public ApiResponse<List<DeadLetterCount>> summary() {
+    if (!isAdmin()) {
+      return ApiResponse.fail(ErrorCode.FORBIDDEN.getCode(), ErrorCode.FORBIDDEN.getMessage());
+    }
+    return ApiResponse.ok(outboxService.countDeadLetters());
+  }
+
+  @PostMapping("/dead-letters/requeue")
+  public ApiResponse<RequeueResult> requeue(@RequestBody RequeueRequest request) {
+    if (!isAdmin()) {
+      return ApiResponse.fail(ErrorCode.FORBIDDEN.getCode(), ErrorCode.FORBIDDEN.getMessage());
+    }
+    if (request == null) {
+      return ApiResponse.fail(ErrorCode.BAD_REQUEST.getCode(), ErrorCode.BAD_REQUEST.getMessage());
+    }
+    int limit = request.getLimit() != null ? request.getLimit() : 100;
+    RequeueResult res = new RequeueResult();
+    res.requeued = outboxService.requeueDeadLetters(request.getIds(), request.getEntityType(), request.getErrorClass(), limit);
+    if (res.requeued > 0) {
+      workerService.wakeUp();
+    }
+    return ApiResponse.ok(res);
+  }
+
+  private boolean isAdmin() {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    if (auth == null || auth.getAuthorities() == null) {
+      return false;
+    }
+    return auth.getAuthorities().stream()
+      .anyMatch(a -> "ADMIN".equalsIgnoreCase(a.getAuthority()) || "ROLE_ADMIN".equalsIgnoreCase(a.getAuthority()));
+  }
+
+  public static class RequeueRequest {
+    private List<Long> ids;
+    private String entityType;
+    private String errorClass;
+    private Integer limit;
+
+    public List<Long> getIds() {
+      return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+      this.ids = ids;
+    }
+
+    public String getEntityType() {
+      return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+      this.entityType = entityType;
+    }
+
+    public String getErrorClass() {
+      return errorClass;
+    }
+
+    public void setErrorClass(String errorClass) {
+      this.errorClass = errorClass;
+    }
+
+    public Integer getLimit() {
+      return limit;
+    }
+
+    public void setLimit(Integer limit) {
+      this.limit = limit;
+    }
+  }
+
+  public static class RequeueResult {
+    public int requeued;
+  }
+
+  public static class DeadLetterItem {
+    @JsonSerialize(using = ToStringSerializer.class)
+    public Long id;
+    public String entityType;
+    @JsonSerialize(using = ToStringSerializer.class)
+    public Long entityId;
+    public Integer attempts;
+    public String lastError;
+    public String lastErrorClass;
+    public LocalDateTime createdAt;
+    public LocalDateTime updatedAt;
+
+    static DeadLetterItem of(OutboxEntity task) {
+      DeadLetterItem item = new DeadLetterItem();
+      item.id = task.getId();
+      item.entityType = task.getEntityType();
+      item.entityId = task.getEntityId();
+      item.attempts = task.getAttempts();
+      item.lastError = task.getLastError();
+      item.lastErrorClass = task.getLastErrorClass();
+      item.createdAt = task.getCreatedAt();
+      item.updatedAt = task.getUpdatedAt();
+      return item;
+    }
+  }
+}
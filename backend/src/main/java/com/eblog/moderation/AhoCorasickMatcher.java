@@ -0,0 +1,219 @@
+package com.eblog.moderation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 敏感词多模式匹配（Aho-Corasick 自动机）。
+ *
+ * <p>构建一次后不可变，可被多个线程同时使用；词表变化时整体重建并替换引用。
+ * 扫描对文本只走一遍，耗时与词表大小无关。匹配不区分大小写（按字符转小写），不生成小写副本。
+ *
+ * <p>除 findAll/findFirst 外，还提供逐字符推进的 {@link #step}/{@link #outputAt}，
+ * 供 RuleEngine 在同一次遍历中同时做外链识别。
+ */
+public final class AhoCorasickMatcher {
+
+  public static final AhoCorasickMatcher EMPTY = new AhoCorasickMatcher(Collections.emptyList());
+
+  private static final int[] NO_OUTPUT = new int[0];
+
+  private final String[] words;
+  /** 每个节点的子节点：按字符升序的边与对应的节点下标，二分查找，避免扫描时装箱 */
+  private final char[][] edgeChars;
+  private final int[][] edgeTargets;
+  private final int[] fail;
+  /** 每个节点结束的词（含经由 fail 链继承的后缀词），按词长降序 */
+  private final int[][] outputs;
+
+  @SuppressWarnings("unchecked")
+  private AhoCorasickMatcher(Collection<String> source) {
+    Set<String> unique = new LinkedHashSet<>();
+    for (String w : source) {
+      if (w != null) {
+        String lower = w.trim().toLowerCase();
+        if (!lower.isEmpty()) {
+          unique.add(lower);
+        }
+      }
+    }
+    this.words = unique.toArray(new String[0]);
+
+    List<Map<Character, Integer>> trie = new ArrayList<>();
+    List<List<Integer>> out = new ArrayList<>();
+    trie.add(new HashMap<>());
+    out.add(new ArrayList<>());
+    for (int i = 0; i < words.length; i++) {
+      int node = 0;
+      for (int j = 0; j < words[i].length(); j++) {
+        char c = Character.toLowerCase(words[i].charAt(j));
+        Integer next = trie.get(node).get(c);
+        if (next == null) {
+          next = trie.size();
+          trie.get(node).put(c, next);
+          trie.add(new HashMap<>());
+          out.add(new ArrayList<>());
+        }
+        node = next;
+      }
+      out.get(node).add(i);
+    }
+
+    int size = trie.size();
+    Map<Character, Integer>[] children = trie.toArray(new Map[size]);
+    this.edgeChars = new char[size][];
+    this.edgeTargets = new int[size][];
+    for (int n = 0; n < size; n++) {
+      char[] keys = new char[children[n].size()];
+      int k = 0;
+      for (char c : children[n].keySet()) {
+        keys[k++] = c;
+      }
+      Arrays.sort(keys);
+      int[] targets = new int[keys.length];
+      for (k = 0; k < keys.length; k++) {
+        targets[k] = children[n].get(keys[k]);
+      }
+      edgeChars[n] = keys;
+      edgeTargets[n] = targets;
+    }
+    this.fail = new int[size];
+    this.outputs = new int[size][];
+
+    // BFS 计算 fail 指针，并把 fail 节点的输出合并进来
+    ArrayDeque<Integer> queue = new ArrayDeque<>();
+    for (int child : children[0].values()) {
+      fail[child] = 0;
+      queue.add(child);
+    }
+    outputs[0] = NO_OUTPUT;
+    while (!queue.isEmpty()) {
+      int node = queue.poll();
+      List<Integer> merged = new ArrayList<>(out.get(node));
+      for (int inherited : outputs[fail[node]] != null ? outputs[fail[node]] : NO_OUTPUT) {
+        merged.add(inherited);
+      }
+      outputs[node] = merged.isEmpty() ? NO_OUTPUT : merged.stream().mapToInt(Integer::intValue).toArray();
+
+      for (Map.Entry<Character, Integer> e : children[node].entrySet()) {
+        int child = e.getValue();
+        int f = fail[node];
+        while (f != 0 && !children[f].containsKey(e.getKey())) {
+          f = fail[f];
+        }
+        Integer target = children[f].get(e.getKey());
+        fail[child] = target != null && target != child ? target : 0;
+        queue.add(child);
+      }
+    }
+  }
+
+  public static AhoCorasickMatcher compile(Collection<String> words) {
+    if (words == null || words.isEmpty()) {
+      return EMPTY;
+    }
+    return new AhoCorasickMatcher(words);
+  }
+
+  public int size() {
+    return words.length;
+  }
+
+  public List<String> words() {
+    return Collections.unmodifiableList(Arrays.asList(words));
+  }
+
+  /**
+   * 返回文本中全部命中（可重叠），按结束位置排序。
+   */
+  public List<Match> findAll(CharSequence text) {
+    List<Match> res = new ArrayList<>();
+    scan(text, res, false);
+    return res;
+  }
+
+  /**
+   * 返回第一个命中（结束位置最靠前的），未命中返回 null。
+   */
+  public Match findFirst(CharSequence text) {
+    List<Match> res = new ArrayList<>(1);
+    scan(text, res, true);
+    return res.isEmpty() ? null : res.get(0);
+  }
+
+  /**
+   * 自动机从状态 state 读入一个字符后的新状态；初始状态为 0。
+   */
+  public int step(int state, char ch) {
+    char c = Character.toLowerCase(ch);
+    int next = child(state, c);
+    while (next < 0 && state != 0) {
+      state = fail[state];
+      next = child(state, c);
+    }
+    return next >= 0 ? next : 0;
+  }
+
+  /**
+   * 在状态 state 结束的最长敏感词，没有则返回 null。
+   */
+  public String outputAt(int state) {
+    int[] out = outputs[state];
+    return out.length > 0 ? words[out[0]] : null;
+  }
+
+  private int child(int node, char c) {
+    int idx = Arrays.binarySearch(edgeChars[node], c);
+    return idx >= 0 ? edgeTargets[node][idx] : -1;
+  }
+
+  private void scan(CharSequence text, List<Match> res, boolean firstOnly) {
+    if (text == null || words.length == 0) {
+      return;
+    }
+    int node = 0;
+    for (int i = 0; i < text.length(); i++) {
+      node = step(node, text.charAt(i));
+      for (int w : outputs[node]) {
+        res.add(new Match(words[w], i + 1 - words[w].length(), i + 1));
+        if (firstOnly) {
+          return;
+        }
+      }
+    }
+  }
+
+  public static final class Match {
+    private final String word;
+    private final int start;
+    private final int end;
+
+    Match(String word, int start, int end) {
+      this.word = word;
+      this.start = start;
+      this.end = end;
+    }
+
+    public String getWord() {
+      return word;
+    }
+
+    /** 命中起始下标（含） */
+    public int getStart() {
+      return start;
+    }
+
+    /** 命中结束下标（不含） */
+    public int getEnd() {
+      return end;
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.eblog.moderation;
+
+/**
+ * 按实体类型、异常类型汇总的死信数量。
+ */
+public class DeadLetterCount {
+  private String entityType;
+  private String errorClass;
+  private long count;
+
+  public String getEntityType() {
+    return entityType;
+  }
+
+  public void setEntityType(String entityType) {
+    this.entityType = entityType;
+  }
+
+  public String getErrorClass() {
+    return errorClass;
+  }
+
+  public void setErrorClass(String errorClass) {
+    this.errorClass = errorClass;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+}
@@ -0,0 +1,43 @@
+package com.eblog.moderation;
+
+import com.eblog.moderation.enums.ModerationStatus;
+
+/**
+ * worker 对单个实体的自动审核结论，供批量写回使用。
+ */
+public class ModerationDecision {
+  private final Long entityId;
+  private final ModerationStatus status;
+  private final String reason;
+  private final String ruleHit;
+  private final Integer ruleVersion;
+
+  public ModerationDecision(Long entityId, RuleEngine.RuleResult result) {
+    this.entityId = entityId;
+    this.status = result.getStatus();
+    boolean approved = result.getStatus() == ModerationStatus.APPROVED;
+    this.reason = approved ? null : result.getReason();
+    this.ruleHit = approved ? null : result.getRuleHit();
+    this.ruleVersion = result.getRuleVersion();
+  }
+
+  public Long getEntityId() {
+    return entityId;
+  }
+
+  public ModerationStatus getStatus() {
+    return status;
+  }
+
+  public String getReason() {
+    return reason;
+  }
+
+  public String getRuleHit() {
+    return ruleHit;
+  }
+
+  public Integer getRuleVersion() {
+    return ruleVersion;
+  }
+}
@@ -0,0 +1,121 @@
+package com.eblog.moderation;
+
+import com.eblog.moderation.entity.ModerationRuleSetEntity;
+import com.eblog.moderation.mapper.ModerationRuleMapper;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 审核规则集的发布与热加载。
+ *
+ * <p>每次发布写入 moderation_rules 一行新版本（版本号递增，不修改旧版本），随后编译并替换 RuleEngine 的规则快照。
+ * 多节点部署时其他节点通过定时检查最新版本号拉取，无需重启。
+ */
+@Service
+public class ModerationRuleService {
+
+  private static final Logger log = LoggerFactory.getLogger(ModerationRuleService.class);
+
+  private static final int MAX_WORDS = 100_000;
+  private static final int MAX_WORD_LENGTH = 64;
+
+  private final ModerationRuleMapper ruleMapper;
+  private final RuleEngine ruleEngine;
+
+  public ModerationRuleService(ModerationRuleMapper ruleMapper, RuleEngine ruleEngine) {
+    this.ruleMapper = ruleMapper;
+    this.ruleEngine = ruleEngine;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadOnStartup() {
+    refresh();
+  }
+
+  @Scheduled(
+    fixedDelayString = "${app.moderation.rules-refresh-ms:30000}",
+    initialDelayString = "${app.moderation.rules-refresh-ms:30000}"
+  )
+  public void refresh() {
+    try {
+      Integer latest = ruleMapper.selectLatestVersion();
+      if (latest == null || latest <= ruleEngine.getRuleVersion()) {
+        return;
+      }
+      ModerationRuleSetEntity rules = ruleMapper.selectLatest();
+      if (rules != null) {
+        apply(rules);
+        log.info("Loaded moderation rule set version {}", rules.getVersion());
+      }
+    } catch (Exception e) {
+      log.warn("Failed to refresh moderation rules: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * 发布新版本规则集并立即在本节点生效。版本号冲突（并发发布）时返回 null。
+   */
+  public ModerationRuleSetEntity publish(Collection<String> sensitiveWords, int maxExternalLinks, String note, Long actorId) {
+    Integer latest = ruleMapper.selectLatestVersion();
+    ModerationRuleSetEntity rules = new ModerationRuleSetEntity();
+    rules.setVersion((latest != null ? latest : 0) + 1);
+    rules.setSensitiveWords(String.join("\n", normalizeWords(sensitiveWords)));
+    rules.setMaxExternalLinks(Math.max(maxExternalLinks, 0));
+    rules.setNote(note != null && note.length() > 255 ? note.substring(0, 255) : note);
+    rules.setPublishedBy(actorId);
+    rules.setCreatedAt(LocalDateTime.now());
+    try {
+      ruleMapper.insert(rules);
+    } catch (DuplicateKeyException e) {
+      return null;
+    }
+    apply(rules);
+    return rules;
+  }
+
+  public ModerationRuleSetEntity current() {
+    return ruleMapper.selectLatest();
+  }
+
+  public List<ModerationRuleSetEntity> history(int limit) {
+    return ruleMapper.listHistory(Math.min(Math.max(limit, 1), 100));
+  }
+
+  static List<String> normalizeWords(Collection<String> words) {
+    Set<String> res = new LinkedHashSet<>();
+    if (words != null) {
+      for (String w : words) {
+        if (w == null) {
+          continue;
+        }
+        String t = w.trim().toLowerCase();
+        if (!t.isEmpty() && t.length() <= MAX_WORD_LENGTH && res.size() < MAX_WORDS) {
+          res.add(t);
+        }
+      }
+    }
+    return new ArrayList<>(res);
+  }
+
+  private void apply(ModerationRuleSetEntity rules) {
+    List<String> words = new ArrayList<>();
+    if (rules.getSensitiveWords() != null) {
+      for (String w : rules.getSensitiveWords().split("\n")) {
+        words.add(w);
+      }
+    }
+    int maxLinks = rules.getMaxExternalLinks() != null ? rules.getMaxExternalLinks() : 10;
+    ruleEngine.apply(rules.getVersion(), words, maxLinks);
+  }
+}
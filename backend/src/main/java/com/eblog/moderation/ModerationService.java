@@ -1,19 +1,30 @@
 package com.eblog.moderation;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.eblog.metadata.MetadataCountService;
 import com.eblog.moderation.entity.AuditLogEntity;
 import com.eblog.moderation.enums.AuditAction;
 import com.eblog.moderation.enums.ModerationStatus;
 import com.eblog.moderation.enums.OutboxStatus;
 import com.eblog.moderation.mapper.AuditLogMapper;
+import com.eblog.post.PostChangedEvent;
 import com.eblog.post.PostEntity;
 import com.eblog.post.PostMapper;
+import com.eblog.comment.CommentService;
 import com.eblog.comment.entity.CommentEntity;
 import com.eblog.comment.mapper.CommentMapper;
-import java.util.List;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -26,45 +37,144 @@ public class ModerationService {
   private final CommentMapper commentMapper;
   private final AuditLogMapper auditLogMapper;
   private final WorkerService workerService;
+  private final MetadataCountService metadataCountService;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public ModerationService(PostMapper postMapper, CommentMapper commentMapper, AuditLogMapper auditLogMapper, WorkerService workerService) {
+  public ModerationService(
+      PostMapper postMapper,
+      CommentMapper commentMapper,
+      AuditLogMapper auditLogMapper,
+      WorkerService workerService,
+      MetadataCountService metadataCountService,
+      ApplicationEventPublisher eventPublisher) {
     this.postMapper = postMapper;
     this.commentMapper = commentMapper;
     this.auditLogMapper = auditLogMapper;
     this.workerService = workerService;
+    this.metadataCountService = metadataCountService;
+    this.eventPublisher = eventPublisher;
   }
 
   @Transactional
-  public void updateModerationStatus(Long postId, ModerationStatus status, String reason, String ruleHit) {
+  public void updateModerationStatus(Long postId, ModerationStatus status, String reason, String ruleHit, Integer ruleVersion) {
     PostEntity post = postMapper.selectById(postId);
     if (post == null) {
       return;
     }
 
+    boolean wasCounted = MetadataCountService.isCounted(post.getStatus(), post.getModerationStatus());
     post.setModerationStatus(status.name());
     post.setUpdatedAt(LocalDateTime.now());
     postMapper.updateById(post);
+    syncMetadataCounts(post, wasCounted);
 
     if (status == ModerationStatus.REJECTED || status == ModerationStatus.NEEDS_REVIEW) {
       AuditAction action = status == ModerationStatus.REJECTED ? AuditAction.RULE_REJECT : AuditAction.REQUEST_REVIEW;
-      workerService.logAudit("POST", postId, null, action, reason, ruleHit);
+      workerService.logAudit("POST", postId, null, action, reason, ruleHit, ruleVersion);
     }
   }
 
   @Transactional
-  public void updateCommentModerationStatus(Long commentId, ModerationStatus status, String reason, String ruleHit) {
+  public void updateCommentModerationStatus(Long commentId, ModerationStatus status, String reason, String ruleHit, Integer ruleVersion) {
     CommentEntity comment = commentMapper.selectById(commentId);
     if (comment == null) {
       return;
     }
 
+    String previousStatus = comment.getModerationStatus();
     comment.setModerationStatus(status.name());
     comment.setUpdatedAt(LocalDateTime.now());
     commentMapper.updateById(comment);
+    syncCommentCount(comment, previousStatus);
 
     if (status == ModerationStatus.REJECTED || status == ModerationStatus.NEEDS_REVIEW) {
       AuditAction action = status == ModerationStatus.REJECTED ? AuditAction.RULE_REJECT : AuditAction.REQUEST_REVIEW;
-      workerService.logAudit("COMMENT", commentId, null, action, reason, ruleHit);
+      workerService.logAudit("COMMENT", commentId, null, action, reason, ruleHit, ruleVersion);
+    }
+  }
+
+  /**
+   * 批量写回 worker 的文章审核结论：同一结论合并为一条 UPDATE，审计日志一条多行 INSERT，
+   * 并汇总进出公开口径的文章，批量调整标签与分类计数、通知搜索索引。由调用方控制事务边界。
+   *
+   * @param posts 本批已加载的文章（需含 status、moderation_status、category）
+   */
+  public void applyPostDecisions(List<ModerationDecision> decisions, Map<Long, PostEntity> posts) {
+    applyStatuses(decisions, postMapper::updateModerationStatusByIds);
+
+    Map<Long, String> entered = new HashMap<>();
+    Map<Long, String> left = new HashMap<>();
+    for (ModerationDecision d : decisions) {
+      PostEntity post = posts.get(d.getEntityId());
+      if (post == null) {
+        continue;
+      }
+      boolean before = MetadataCountService.isCounted(post.getStatus(), post.getModerationStatus());
+      boolean after = MetadataCountService.isCounted(post.getStatus(), d.getStatus().name());
+      if (before != after) {
+        (after ? entered : left).put(post.getId(), post.getCategory());
+      }
+      post.setModerationStatus(d.getStatus().name());
+    }
+    metadataCountService.postsEntered(entered);
+    metadataCountService.postsLeft(left);
+    if (!entered.isEmpty() || !left.isEmpty()) {
+      Set<Long> changed = new HashSet<>(entered.keySet());
+      changed.addAll(left.keySet());
+      eventPublisher.publishEvent(new PostChangedEvent(changed));
+    }
+    insertAuditLogs("POST", decisions);
+  }
+
+  /**
+   * 批量写回 worker 的评论审核结论，并按文章汇总评论计数变化。
+   *
+   * @param comments 本批已加载的评论，用于判断审核前后是否计入文章评论数
+   */
+  public void applyCommentDecisions(List<ModerationDecision> decisions, Map<Long, CommentEntity> comments) {
+    applyStatuses(decisions, commentMapper::updateModerationStatusByIds);
+
+    Map<Long, Integer> countDeltas = new HashMap<>();
+    for (ModerationDecision d : decisions) {
+      CommentEntity comment = comments.get(d.getEntityId());
+      if (comment == null) {
+        continue;
+      }
+      boolean before = CommentService.isCounted(comment.getStatus(), comment.getModerationStatus());
+      boolean after = CommentService.isCounted(comment.getStatus(), d.getStatus().name());
+      if (before != after) {
+        countDeltas.merge(comment.getPostId(), after ? 1 : -1, Integer::sum);
+      }
+      comment.setModerationStatus(d.getStatus().name());
+    }
+    for (Map.Entry<Long, Integer> e : countDeltas.entrySet()) {
+      if (e.getValue() != 0) {
+        postMapper.adjustCommentCount(e.getKey(), e.getValue());
+      }
+    }
+    insertAuditLogs("COMMENT", decisions);
+  }
+
+  private void applyStatuses(List<ModerationDecision> decisions, BiFunction<Collection<Long>, String, Integer> update) {
+    Map<ModerationStatus, List<Long>> byStatus = new EnumMap<>(ModerationStatus.class);
+    for (ModerationDecision d : decisions) {
+      byStatus.computeIfAbsent(d.getStatus(), k -> new ArrayList<>()).add(d.getEntityId());
+    }
+    for (Map.Entry<ModerationStatus, List<Long>> e : byStatus.entrySet()) {
+      update.apply(e.getValue(), e.getKey().name());
+    }
+  }
+
+  private void insertAuditLogs(String entityType, List<ModerationDecision> decisions) {
+    List<AuditLogEntity> logs = new ArrayList<>();
+    for (ModerationDecision d : decisions) {
+      if (d.getStatus() == ModerationStatus.REJECTED || d.getStatus() == ModerationStatus.NEEDS_REVIEW) {
+        AuditAction action = d.getStatus() == ModerationStatus.REJECTED ? AuditAction.RULE_REJECT : AuditAction.REQUEST_REVIEW;
+        logs.add(WorkerService.newAuditLog(entityType, d.getEntityId(), null, action, d.getReason(), d.getRuleHit(), d.getRuleVersion()));
+      }
+    }
+    if (!logs.isEmpty()) {
+      auditLogMapper.insertBatch(logs);
     }
   }
 
@@ -89,9 +199,11 @@ public class ModerationService {
         return;
     }
 
+    boolean wasCounted = MetadataCountService.isCounted(post.getStatus(), post.getModerationStatus());
     post.setModerationStatus(status.name());
     post.setUpdatedAt(LocalDateTime.now());
     postMapper.updateById(post);
+    syncMetadataCounts(post, wasCounted);
 
     workerService.logAudit("POST", postId, actorId, action, reason, null);
   }
@@ -117,13 +229,37 @@ public class ModerationService {
         return;
     }
 
+    String previousStatus = comment.getModerationStatus();
     comment.setModerationStatus(status.name());
     comment.setUpdatedAt(LocalDateTime.now());
     commentMapper.updateById(comment);
+    syncCommentCount(comment, previousStatus);
 
     workerService.logAudit("COMMENT", commentId, actorId, action, reason, null);
   }
 
+  // 审核结论使文章进出公开口径时同步标签与分类计数，并通知搜索索引
+  private void syncMetadataCounts(PostEntity post, boolean wasCounted) {
+    boolean counted = MetadataCountService.isCounted(post.getStatus(), post.getModerationStatus());
+    if (counted && !wasCounted) {
+      metadataCountService.postEntered(post.getId(), post.getCategory());
+    } else if (!counted && wasCounted) {
+      metadataCountService.postLeft(post.getId(), post.getCategory());
+    }
+    if (counted != wasCounted) {
+      eventPublisher.publishEvent(new PostChangedEvent(List.of(post.getId())));
+    }
+  }
+
+  // 审核状态进出 REJECTED 时同步文章评论计数
+  private void syncCommentCount(CommentEntity comment, String previousStatus) {
+    boolean before = CommentService.isCounted(comment.getStatus(), previousStatus);
+    boolean after = CommentService.isCounted(comment.getStatus(), comment.getModerationStatus());
+    if (before != after) {
+      postMapper.adjustCommentCount(comment.getPostId(), after ? 1 : -1);
+    }
+  }
+
   public List<PostEntity> getPostsNeedingReview(int limit, int offset) {
     return postMapper.selectList(
       new LambdaQueryWrapper<PostEntity>()
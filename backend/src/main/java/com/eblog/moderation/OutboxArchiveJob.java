@@ -0,0 +1,108 @@
+package com.eblog.moderation;
+
+import com.eblog.moderation.enums.OutboxStatus;
+import com.eblog.moderation.mapper.OutboxMapper;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 审核任务归档：把超过保留期的 COMPLETED / DEAD_LETTER 任务分批移入 moderation_outbox_archive。
+ *
+ * <p>每批在独立的短事务里 加锁选取 → 复制到归档表 → 删除，单批行数受 batch-size 限制，不会长时间锁表。
+ * 死信默认保留更久，便于后台排查和重放。
+ */
+@Component
+public class OutboxArchiveJob {
+
+  private static final Logger log = LoggerFactory.getLogger(OutboxArchiveJob.class);
+
+  private final OutboxMapper outboxMapper;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${app.worker.archive.enabled:true}")
+  private boolean enabled = true;
+
+  @Value("${app.worker.archive.batch-size:1000}")
+  private int batchSize = 1000;
+
+  @Value("${app.worker.archive.completed-retention-days:7}")
+  private int completedRetentionDays = 7;
+
+  @Value("${app.worker.archive.dead-letter-retention-days:30}")
+  private int deadLetterRetentionDays = 30;
+
+  /** 归档表本身的保留天数，0 表示不清理 */
+  @Value("${app.worker.archive.archive-retention-days:0}")
+  private int archiveRetentionDays = 0;
+
+  public OutboxArchiveJob(OutboxMapper outboxMapper, TransactionTemplate transactionTemplate) {
+    this.outboxMapper = outboxMapper;
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  @Scheduled(
+    fixedDelayString = "${app.worker.archive.interval-ms:3600000}",
+    initialDelayString = "${app.worker.archive.interval-ms:3600000}"
+  )
+  public void run() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      LocalDateTime now = LocalDateTime.now();
+      int completed = archive(OutboxStatus.COMPLETED, now.minusDays(Math.max(completedRetentionDays, 0)));
+      int dead = archive(OutboxStatus.DEAD_LETTER, now.minusDays(Math.max(deadLetterRetentionDays, 0)));
+      int purged = archiveRetentionDays > 0 ? purge(now.minusDays(archiveRetentionDays)) : 0;
+      if (completed + dead + purged > 0) {
+        log.info("Archived {} completed and {} dead-letter outbox tasks, purged {} archived rows", completed, dead, purged);
+      }
+    } catch (Exception e) {
+      log.error("Error archiving outbox tasks", e);
+    }
+  }
+
+  /**
+   * 分批归档指定终态中 updated_at 早于 before 的任务，返回归档条数。
+   */
+  public int archive(OutboxStatus status, LocalDateTime before) {
+    int safeBatch = safeBatch();
+    int archived = 0;
+    while (true) {
+      Integer moved = transactionTemplate.execute(tx -> {
+        List<Long> ids = outboxMapper.selectArchivableIds(status.name(), before, safeBatch);
+        if (ids.isEmpty()) {
+          return 0;
+        }
+        outboxMapper.copyToArchive(ids);
+        outboxMapper.deleteArchived(ids);
+        return ids.size();
+      });
+      int n = moved != null ? moved : 0;
+      archived += n;
+      if (n < safeBatch) {
+        return archived;
+      }
+    }
+  }
+
+  public int purge(LocalDateTime before) {
+    int safeBatch = safeBatch();
+    int purged = 0;
+    int n;
+    do {
+      n = outboxMapper.purgeArchive(before, safeBatch);
+      purged += n;
+    } while (n >= safeBatch);
+    return purged;
+  }
+
+  private int safeBatch() {
+    return Math.min(Math.max(batchSize, 1), 10000);
+  }
+}
@@ -0,0 +1,22 @@
+package com.eblog.moderation;
+
+/**
+ * 审核任务入队事件。由 {@link OutboxService#enqueue} 发布，事务提交后唤醒本节点的 {@link WorkerService}。
+ */
+public class OutboxEnqueuedEvent {
+  private final String entityType;
+  private final Long entityId;
+
+  public OutboxEnqueuedEvent(String entityType, Long entityId) {
+    this.entityType = entityType;
+    this.entityId = entityId;
+  }
+
+  public String getEntityType() {
+    return entityType;
+  }
+
+  public Long getEntityId() {
+    return entityId;
+  }
+}
@@ -0,0 +1,55 @@
+package com.eblog.moderation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 回收租约过期的审核任务：持有节点宕机或卡死时，PROCESSING 任务在 lease-seconds 后重新可被任一节点认领。
+ */
+@Component
+public class OutboxLeaseReaper {
+
+  private static final Logger log = LoggerFactory.getLogger(OutboxLeaseReaper.class);
+
+  private final OutboxService outboxService;
+  private final WorkerService workerService;
+
+  @Value("${app.worker.reaper.enabled:true}")
+  private boolean enabled = true;
+
+  @Value("${app.worker.reaper.batch-size:500}")
+  private int batchSize = 500;
+
+  public OutboxLeaseReaper(OutboxService outboxService, WorkerService workerService) {
+    this.outboxService = outboxService;
+    this.workerService = workerService;
+  }
+
+  @Scheduled(
+    fixedDelayString = "${app.worker.reaper.interval-ms:60000}",
+    initialDelayString = "${app.worker.reaper.interval-ms:60000}"
+  )
+  public void run() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      int safeBatch = Math.min(Math.max(batchSize, 1), 5000);
+      int released = 0;
+      int n;
+      do {
+        n = outboxService.releaseExpiredLeases(safeBatch);
+        released += n;
+      } while (n >= safeBatch);
+      if (released > 0) {
+        log.warn("Released {} outbox tasks with expired leases", released);
+        workerService.wakeUp();
+      }
+    } catch (Exception e) {
+      log.error("Error releasing expired outbox leases", e);
+    }
+  }
+}
@@ -4,9 +4,15 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.eblog.moderation.entity.OutboxEntity;
 import com.eblog.moderation.enums.OutboxStatus;
 import com.eblog.moderation.mapper.OutboxMapper;
+import java.lang.management.ManagementFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,9 +20,38 @@ import org.springframework.transaction.annotation.Transactional;
 public class OutboxService {
 
   private final OutboxMapper outboxMapper;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /** 租约持有者标识，默认取 主机名/进程号 加随机后缀，保证同机多实例也不相同 */
+  private String nodeId = defaultNodeId();
+
+  @Value("${app.worker.lease-seconds:300}")
+  private int leaseSeconds = 300;
+
+  @Value("${app.worker.retry-backoff-seconds:30}")
+  private long retryBackoffSeconds = 30;
+
+  @Value("${app.worker.retry-backoff-max-seconds:3600}")
+  private long retryBackoffMaxSeconds = 3600;
+
+  @Value("${app.worker.requeue-rate-per-second:20}")
+  private int requeueRatePerSecond = 20;
 
   public OutboxService(OutboxMapper outboxMapper) {
+    this(outboxMapper, null);
+  }
+
+  @Autowired
+  public OutboxService(OutboxMapper outboxMapper, ApplicationEventPublisher eventPublisher) {
     this.outboxMapper = outboxMapper;
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Value("${app.worker.node-id:}")
+  void setNodeId(String nodeId) {
+    if (nodeId != null && !nodeId.trim().isEmpty()) {
+      this.nodeId = nodeId.trim();
+    }
   }
 
   @Transactional
@@ -44,6 +79,10 @@ public class OutboxService {
     entity.setUpdatedAt(LocalDateTime.now());
     entity.setAttempts(0);
     outboxMapper.insert(entity);
+    if (eventPublisher != null) {
+      // 监听方按 AFTER_COMMIT 处理，回滚的入队不会唤醒 worker
+      eventPublisher.publishEvent(new OutboxEnqueuedEvent(entityType, entityId));
+    }
   }
 
   @Transactional
@@ -55,20 +94,106 @@ public class OutboxService {
     return outboxMapper.lockPendingTasks(limit);
   }
 
-  public int markProcessing(Long id) {
-    return outboxMapper.markProcessing(id);
+  /**
+   * 认领一批待处理任务：在一个短事务内加锁选取并标记为 PROCESSING，同时写入本节点的租约，
+   * 提交后行锁即释放，其他节点的 SKIP LOCKED 查询不会再选到这些任务。
+   */
+  @Transactional
+  public List<OutboxEntity> claimTasks(int limit) {
+    List<OutboxEntity> tasks = outboxMapper.lockPendingTasks(limit);
+    if (tasks.isEmpty()) {
+      return tasks;
+    }
+    List<Long> ids = new ArrayList<>(tasks.size());
+    for (OutboxEntity task : tasks) {
+      ids.add(task.getId());
+      task.setStatus(OutboxStatus.PROCESSING.name());
+    }
+    outboxMapper.markProcessingBatch(ids, nodeId, Math.max(leaseSeconds, 1));
+    return tasks;
   }
 
   public int markCompleted(Long id) {
-    return outboxMapper.markCompleted(id);
+    return outboxMapper.markCompleted(id, nodeId);
+  }
+
+  /**
+   * 批量完成任务，返回实际完成条数；少于传入条数说明有任务的租约已丢失。
+   */
+  public int markCompletedBatch(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    return outboxMapper.markCompletedBatch(ids, nodeId);
+  }
+
+  /**
+   * 记一次失败并按指数退避安排下次认领：base * 2^attempts 秒，封顶 retry-backoff-max-seconds。
+   *
+   * @param attempts 本次失败之前已累计的失败次数
+   */
+  public int markFailed(Long id, int attempts, Throwable error) {
+    return outboxMapper.markFailed(id, nodeId, errorMessage(error), errorClass(error), retryDelaySeconds(attempts));
+  }
+
+  public int markDeadLetter(Long id, Throwable error) {
+    return outboxMapper.markDeadLetter(id, nodeId, errorMessage(error), errorClass(error));
+  }
+
+  public List<OutboxEntity> listDeadLetters(String entityType, String errorClass, Long afterId, int limit) {
+    return outboxMapper.listDeadLetters(blankToNull(entityType), blankToNull(errorClass), afterId, Math.min(Math.max(limit, 1), 200));
+  }
+
+  public List<DeadLetterCount> countDeadLetters() {
+    return outboxMapper.countDeadLetters();
+  }
+
+  /**
+   * 批量重放死信：指定 ids 时只处理这些任务，否则按实体类型 / 异常类型筛选最多 limit 条。
+   *
+   * <p>按 requeue-rate-per-second 分组错开 next_attempt_at，第 i 组延后 i 秒可被认领，
+   * 故障恢复后的大批重放不会一次性压满 worker。返回实际重放条数。
+   */
+  @Transactional
+  public int requeueDeadLetters(List<Long> ids, String entityType, String errorClass, int limit) {
+    int safeLimit = Math.min(Math.max(limit, 1), 5000);
+    List<Long> targets = new ArrayList<>();
+    if (ids != null && !ids.isEmpty()) {
+      for (Long id : ids) {
+        if (id != null && targets.size() < safeLimit) {
+          targets.add(id);
+        }
+      }
+    } else {
+      for (OutboxEntity task : outboxMapper.listDeadLetters(blankToNull(entityType), blankToNull(errorClass), null, safeLimit)) {
+        targets.add(task.getId());
+      }
+    }
+    int rate = Math.max(requeueRatePerSecond, 1);
+    int requeued = 0;
+    for (int i = 0; i < targets.size(); i += rate) {
+      List<Long> chunk = targets.subList(i, Math.min(i + rate, targets.size()));
+      requeued += outboxMapper.requeueDeadLetters(chunk, i / rate);
+    }
+    return requeued;
   }
 
-  public int markFailed(Long id, String error) {
-    return outboxMapper.markFailed(id, error);
+  /**
+   * 回收租约过期的任务，返回回收条数。
+   */
+  public int releaseExpiredLeases(int limit) {
+    return outboxMapper.releaseExpiredLeases(Math.max(leaseSeconds, 1), limit);
   }
 
-  public int markDeadLetter(Long id, String error) {
-    return outboxMapper.markDeadLetter(id, error);
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  long retryDelaySeconds(int attempts) {
+    long base = Math.max(retryBackoffSeconds, 1);
+    long max = Math.max(retryBackoffMaxSeconds, base);
+    int shift = Math.min(Math.max(attempts, 0), 30);
+    return Math.min(base << shift, max);
   }
 
   public OutboxEntity findByEntity(String entityType, Long entityId, OutboxStatus status) {
@@ -83,4 +208,25 @@ public class OutboxService {
   public void delete(OutboxEntity entity) {
     outboxMapper.deleteById(entity.getId());
   }
+
+  private static String errorMessage(Throwable error) {
+    String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    return message.length() > 255 ? message.substring(0, 255) : message;
+  }
+
+  private static String errorClass(Throwable error) {
+    String name = error.getClass().getName();
+    return name.length() > 128 ? name.substring(name.length() - 128) : name;
+  }
+
+  private static String blankToNull(String value) {
+    return value == null || value.trim().isEmpty() ? null : value.trim();
+  }
+
+  private static String defaultNodeId() {
+    String runtime = ManagementFactory.getRuntimeMXBean().getName();
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    String id = runtime + "-" + suffix;
+    return id.length() > 64 ? id.substring(id.length() - 64) : id;
+  }
 }
@@ -0,0 +1,25 @@
+package com.eblog.moderation;
+
+/**
+ * moderation_outbox 按状态汇总的任务数。
+ */
+public class OutboxStatusCount {
+  private String status;
+  private long count;
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+}
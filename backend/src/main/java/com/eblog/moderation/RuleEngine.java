@@ -1,12 +1,14 @@
 package com.eblog.moderation;
 
 import com.eblog.moderation.enums.ModerationStatus;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicReference;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -19,77 +21,317 @@ public class RuleEngine {
   @Value("${app.moderation.max-external-links}")
   private int maxExternalLinks = 10;
 
-  private Set<String> sensitiveWords = new HashSet<>();
-  private Pattern httpLinkPattern = Pattern.compile("https?://[\\w\\.-]+", Pattern.CASE_INSENSITIVE);
+  @Value("${app.moderation.max-external-domains:0}")
+  private int maxExternalDomains = 0;
 
+  @Value("${app.moderation.allowed-domains:}")
+  private String allowedDomainsConfig = "";
+
+  @Value("${app.moderation.denied-domains:}")
+  private String deniedDomainsConfig = "";
+
+  // 当前生效的规则集（不可变快照）；更新时整体替换引用（copy-on-write），评估中的线程继续使用旧快照。
+  // 各 setter 只改自己负责的字段，经 updateAndGet 基于最新快照重建，并发热更新不会互相覆盖
+  private final AtomicReference<RuleSet> rules = new AtomicReference<>(new RuleSet(RuleSet.CONFIG_VERSION,
+    AhoCorasickMatcher.EMPTY, 10, 0, Collections.emptySet(), Collections.emptySet()));
+
+  /**
+   * 从 application.yml 加载初始规则（版本 0）。数据库中已发布的规则集由 ModerationRuleService 随后覆盖。
+   */
   public void init() {
-    sensitiveWords.clear();
+    List<String> words = new ArrayList<>();
     if (sensitiveWordsConfig != null && !sensitiveWordsConfig.trim().isEmpty()) {
-      String[] words = sensitiveWordsConfig.split(",");
-      for (String word : words) {
-        String w = word.trim().toLowerCase();
-        if (!w.isEmpty()) {
-          sensitiveWords.add(w);
-        }
-      }
+      Collections.addAll(words, sensitiveWordsConfig.split(","));
     }
+    Set<String> allowed = parseDomains(allowedDomainsConfig);
+    Set<String> denied = parseDomains(deniedDomainsConfig);
+    int maxDomains = maxExternalDomains;
+    rules.updateAndGet(current -> new RuleSet(current.version, current.matcher, current.maxExternalLinks, maxDomains,
+      allowed, denied));
+    apply(RuleSet.CONFIG_VERSION, words, maxExternalLinks);
+  }
+
+  /**
+   * 编译并原子替换敏感词与外链阈值；域名名单只来自配置，沿用当前快照。
+   * 版本低于当前快照时忽略：定时刷新先读版本号、再读规则集，可能与 publish 交错而拿到较旧的规则集。
+   */
+  public void apply(int version, Collection<String> words, int maxExternalLinks) {
+    AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(words);
+    rules.updateAndGet(current -> version < current.version ? current : new RuleSet(version, matcher,
+      maxExternalLinks, current.maxExternalDomains, current.allowedDomains, current.deniedDomains));
+  }
+
+  /**
+   * 重新编译敏感词表并原子替换，其余规则与版本不变。
+   */
+  public void setSensitiveWords(Collection<String> words) {
+    AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(words);
+    rules.updateAndGet(current -> current.withMatcher(matcher));
+  }
+
+  public int getSensitiveWordCount() {
+    return rules.get().matcher.size();
+  }
+
+  public int getRuleVersion() {
+    return rules.get().version;
   }
 
   public void setMaxExternalLinks(int maxExternalLinks) {
     this.maxExternalLinks = maxExternalLinks;
+    rules.updateAndGet(current -> new RuleSet(current.version, current.matcher, maxExternalLinks,
+      current.maxExternalDomains, current.allowedDomains, current.deniedDomains));
   }
 
   public void setSensitiveWordsConfig(String sensitiveWordsConfig) {
     this.sensitiveWordsConfig = sensitiveWordsConfig;
   }
 
+  /**
+   * 设置外链域名名单（逗号分隔，匹配域名本身及其子域名）：allowed 中的链接不计入外链与域名数，
+   * denied 中的链接直接拒绝。
+   */
+  public void setDomainLists(String allowed, String denied) {
+    this.allowedDomainsConfig = allowed;
+    this.deniedDomainsConfig = denied;
+    Set<String> allowedSet = parseDomains(allowed);
+    Set<String> deniedSet = parseDomains(denied);
+    rules.updateAndGet(current -> new RuleSet(current.version, current.matcher, current.maxExternalLinks,
+      current.maxExternalDomains, allowedSet, deniedSet));
+  }
+
+  /**
+   * 不同外部域名数阈值，0 表示不限制。
+   */
+  public void setMaxExternalDomains(int maxExternalDomains) {
+    this.maxExternalDomains = maxExternalDomains;
+    rules.updateAndGet(current -> new RuleSet(current.version, current.matcher, current.maxExternalLinks,
+      maxExternalDomains, current.allowedDomains, current.deniedDomains));
+  }
+
+  /**
+   * 单遍评估：标题与正文各只遍历一次，同一循环内推进敏感词自动机并识别 http(s) 链接，
+   * 统计外链数与不同外部域名。不生成小写副本，耗时与文本长度成线性。
+   */
   public RuleResult evaluate(String title, String content) {
-    ModerationStatus status = ModerationStatus.APPROVED;
-    String reason = null;
-    String ruleHit = null;
-
-    String titleLower = title != null ? title.toLowerCase() : "";
-    String contentLower = content != null ? content.toLowerCase() : "";
-    String fullText = titleLower + " " + contentLower;
-
-    for (String word : sensitiveWords) {
-      if (fullText.contains(word)) {
-        status = ModerationStatus.REJECTED;
-        reason = "Content contains sensitive word: " + word;
-        ruleHit = "SENSITIVE_WORD_" + word.toUpperCase();
-        return new RuleResult(status, reason, ruleHit);
+    RuleSet snapshot = rules.get();
+    Scan scan = new Scan(snapshot);
+    if (scan.run(title) && scan.run(content)) {
+      int totalLinks = scan.links;
+      if (totalLinks > snapshot.maxExternalLinks) {
+        return new RuleResult(ModerationStatus.NEEDS_REVIEW, "Too many external links: " + totalLinks,
+          "LINK_COUNT_THRESHOLD", snapshot.version);
       }
+      int domains = scan.domains.size();
+      if (snapshot.maxExternalDomains > 0 && domains > snapshot.maxExternalDomains) {
+        return new RuleResult(ModerationStatus.NEEDS_REVIEW, "Too many external domains: " + domains,
+          "DOMAIN_COUNT_THRESHOLD", snapshot.version);
+      }
+      return new RuleResult(ModerationStatus.APPROVED, null, null, snapshot.version);
+    }
+    if (scan.word != null) {
+      return new RuleResult(ModerationStatus.REJECTED, "Content contains sensitive word: " + scan.word,
+        "SENSITIVE_WORD_" + scan.word.toUpperCase(), snapshot.version);
     }
+    return new RuleResult(ModerationStatus.REJECTED, "Content links to denied domain: " + scan.deniedDomain,
+      "DENIED_DOMAIN", snapshot.version);
+  }
+
+  /**
+   * 列出标题与正文中的全部敏感词命中（含位置），供审核后台展示。
+   */
+  public SensitiveHits findSensitiveWords(String title, String content) {
+    AhoCorasickMatcher matcher = rules.get().matcher;
+    SensitiveHits hits = new SensitiveHits();
+    hits.title = matcher.findAll(title);
+    hits.content = matcher.findAll(content);
+    return hits;
+  }
+
+  public static class SensitiveHits {
+    public List<AhoCorasickMatcher.Match> title;
+    public List<AhoCorasickMatcher.Match> content;
+  }
 
-    Matcher titleMatcher = httpLinkPattern.matcher(title != null ? title : "");
-    Matcher contentMatcher = httpLinkPattern.matcher(content != null ? content : "");
-    int titleLinks = 0;
-    int contentLinks = 0;
-    while (titleMatcher.find()) {
-      titleLinks++;
+  static Set<String> parseDomains(String config) {
+    Set<String> res = new HashSet<>();
+    if (config == null) {
+      return res;
+    }
+    for (String d : config.split(",")) {
+      String domain = d.trim().toLowerCase(Locale.ROOT);
+      while (domain.startsWith(".")) {
+        domain = domain.substring(1);
+      }
+      if (!domain.isEmpty()) {
+        res.add(domain);
+      }
     }
-    while (contentMatcher.find()) {
-      contentLinks++;
+    return res;
+  }
+
+  /**
+   * 域名或其任一父域名在名单中即视为命中（a.b.example.com 命中 example.com）。
+   */
+  static boolean matchesDomain(Set<String> list, String domain) {
+    if (list.isEmpty()) {
+      return false;
     }
-    int totalLinks = titleLinks + contentLinks;
-    if (totalLinks > maxExternalLinks) {
-      status = ModerationStatus.NEEDS_REVIEW;
-      reason = "Too many external links: " + totalLinks;
-      ruleHit = "LINK_COUNT_THRESHOLD";
+    int from = 0;
+    while (true) {
+      if (list.contains(from == 0 ? domain : domain.substring(from))) {
+        return true;
+      }
+      int dot = domain.indexOf('.', from);
+      if (dot < 0) {
+        return false;
+      }
+      from = dot + 1;
     }
+  }
+
+  /**
+   * 一次评估的扫描状态。链接识别与原正则 {@code https?://[\w.-]+} 一致（不区分大小写），
+   * 协议头用固定长度的前瞻比较，主机名随主循环逐字符推进，不回溯。
+   */
+  private static final class Scan {
+    private final RuleSet rules;
+    private final Set<String> domains = new HashSet<>();
+    private int links;
+    private String word;
+    private String deniedDomain;
 
-    return new RuleResult(status, reason, ruleHit);
+    private Scan(RuleSet rules) {
+      this.rules = rules;
+    }
+
+    /**
+     * 扫描一段文本；命中敏感词或禁止域名时返回 false 并停止。
+     */
+    private boolean run(String text) {
+      if (text == null) {
+        return true;
+      }
+      AhoCorasickMatcher matcher = rules.matcher;
+      boolean matchWords = matcher.size() > 0;
+      int state = 0;
+      int hostStart = -1;
+      int n = text.length();
+      for (int i = 0; i < n; i++) {
+        char c = text.charAt(i);
+        if (matchWords) {
+          state = matcher.step(state, c);
+          String hit = matcher.outputAt(state);
+          if (hit != null) {
+            word = hit;
+            return false;
+          }
+        }
+        if (hostStart >= 0) {
+          if (i >= hostStart && !isHostChar(c)) {
+            if (!onLink(text, hostStart, i)) {
+              return false;
+            }
+            hostStart = -1;
+          }
+        } else if (c == 'h' || c == 'H') {
+          int len = schemeLength(text, i);
+          if (len > 0 && i + len < n && isHostChar(text.charAt(i + len))) {
+            hostStart = i + len;
+          }
+        }
+      }
+      return hostStart < 0 || onLink(text, hostStart, n);
+    }
+
+    private boolean onLink(String text, int start, int end) {
+      String domain = domainOf(text, start, end);
+      if (matchesDomain(rules.deniedDomains, domain)) {
+        deniedDomain = domain;
+        return false;
+      }
+      if (!matchesDomain(rules.allowedDomains, domain)) {
+        links++;
+        domains.add(domain);
+      }
+      return true;
+    }
+
+    /** 只为主机名本身生成小写串，末尾的点去掉 */
+    private static String domainOf(String text, int start, int end) {
+      while (end > start && text.charAt(end - 1) == '.') {
+        end--;
+      }
+      char[] buf = new char[end - start];
+      for (int i = start; i < end; i++) {
+        char c = text.charAt(i);
+        buf[i - start] = c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+      }
+      return new String(buf);
+    }
+
+    /** text 在 i 处以 http:// 或 https:// 开头时返回其长度，否则返回 0 */
+    private static int schemeLength(String text, int i) {
+      if (!text.regionMatches(true, i, "http", 0, 4)) {
+        return 0;
+      }
+      int p = i + 4;
+      if (p < text.length() && (text.charAt(p) == 's' || text.charAt(p) == 'S')) {
+        p++;
+      }
+      return text.startsWith("://", p) ? p + 3 - i : 0;
+    }
+
+    private static boolean isHostChar(char c) {
+      return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+        || c == '_' || c == '.' || c == '-';
+    }
+  }
+
+  /**
+   * 一套规则的不可变快照。
+   */
+  private static final class RuleSet {
+    /** application.yml 中的初始规则 */
+    private static final int CONFIG_VERSION = 0;
+
+    private final int version;
+    private final AhoCorasickMatcher matcher;
+    private final int maxExternalLinks;
+    private final int maxExternalDomains;
+    private final Set<String> allowedDomains;
+    private final Set<String> deniedDomains;
+
+    private RuleSet(int version, AhoCorasickMatcher matcher, int maxExternalLinks,
+        int maxExternalDomains, Set<String> allowedDomains, Set<String> deniedDomains) {
+      this.version = version;
+      this.matcher = matcher;
+      this.maxExternalLinks = maxExternalLinks;
+      this.maxExternalDomains = maxExternalDomains;
+      this.allowedDomains = allowedDomains;
+      this.deniedDomains = deniedDomains;
+    }
+
+    private RuleSet withMatcher(AhoCorasickMatcher matcher) {
+      return new RuleSet(version, matcher, maxExternalLinks, maxExternalDomains, allowedDomains, deniedDomains);
+    }
   }
 
   public static class RuleResult {
     private final ModerationStatus status;
     private final String reason;
     private final String ruleHit;
+    private final Integer ruleVersion;
 
     public RuleResult(ModerationStatus status, String reason, String ruleHit) {
+      this(status, reason, ruleHit, null);
+    }
+
+    public RuleResult(ModerationStatus status, String reason, String ruleHit, Integer ruleVersion) {
       this.status = status;
       this.reason = reason;
       this.ruleHit = ruleHit;
+      this.ruleVersion = ruleVersion;
     }
 
     public ModerationStatus getStatus() {
@@ -103,5 +345,10 @@ public class RuleEngine {
     public String getRuleHit() {
       return ruleHit;
     }
+
+    /** 评估时使用的规则集版本 */
+    public Integer getRuleVersion() {
+      return ruleVersion;
+    }
   }
 }
@@ -4,24 +4,37 @@ import com.eblog.moderation.entity.AuditLogEntity;
 import com.eblog.moderation.entity.OutboxEntity;
 import com.eblog.moderation.enums.AuditAction;
 import com.eblog.moderation.enums.ModerationStatus;
-import com.eblog.moderation.enums.OutboxStatus;
 import com.eblog.moderation.mapper.AuditLogMapper;
-import com.eblog.moderation.mapper.OutboxMapper;
-import com.eblog.moderation.OutboxService;
 import com.eblog.post.PostEntity;
 import com.eblog.post.PostMapper;
 import com.eblog.comment.entity.CommentEntity;
 import com.eblog.comment.mapper.CommentMapper;
+import jakarta.annotation.PreDestroy;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class WorkerService {
@@ -35,113 +48,402 @@ public class WorkerService {
   private final CommentMapper commentMapper;
   private final ModerationService moderationService;
 
+  private final TransactionTemplate transactionTemplate;
+  private final ModerationMetrics metrics;
+
   @Value("${app.worker.interval-seconds}")
   private int workerIntervalSeconds;
 
   @Value("${app.worker.batch-size}")
   private int workerBatchSize;
 
+  @Value("${app.worker.concurrency:4}")
+  private int concurrency = 4;
+
+  /** 队列为空时的最短轮询间隔，空轮询后按倍数退避到 interval-seconds */
+  @Value("${app.worker.min-poll-ms:200}")
+  private long minPollMs = 200;
+
+  private volatile ExecutorService executor;
+  private volatile Thread dispatcher;
+  private volatile boolean running;
+  private final Object signal = new Object();
+  private boolean signalled;
+
+  @Autowired
   public WorkerService(
       OutboxService outboxService,
       RuleEngine ruleEngine,
       AuditLogMapper auditLogMapper,
       PostMapper postMapper,
       CommentMapper commentMapper,
-      @org.springframework.context.annotation.Lazy ModerationService moderationService) {
+      @org.springframework.context.annotation.Lazy ModerationService moderationService,
+      TransactionTemplate transactionTemplate,
+      ModerationMetrics metrics) {
     this.outboxService = outboxService;
     this.ruleEngine = ruleEngine;
     this.auditLogMapper = auditLogMapper;
     this.postMapper = postMapper;
     this.commentMapper = commentMapper;
     this.moderationService = moderationService;
+    this.transactionTemplate = transactionTemplate;
+    this.metrics = metrics;
     ruleEngine.init();
   }
 
-  @Scheduled(
-    fixedRateString = "#{${app.worker.interval-seconds} * 1000}",
-    initialDelayString = "#{${app.worker.interval-seconds} * 1000}"
-  )
-  @Transactional
-  public void processOutbox() {
-    try {
-      List<OutboxEntity> tasks = outboxService.lockPendingTasks(workerBatchSize);
-      if (tasks.isEmpty()) {
+  /**
+   * 启动调度线程。入队事件在事务提交后唤醒它；轮询只作兜底：
+   * 批次取满立即继续认领，队列为空时等待间隔从 min-poll-ms 起翻倍，最长 interval-seconds。
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void start() {
+    if (dispatcher != null) {
+      return;
+    }
+    running = true;
+    dispatcher = new Thread(this::dispatchLoop, "outbox-dispatcher");
+    dispatcher.setDaemon(true);
+    dispatcher.start();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onOutboxEnqueued(OutboxEnqueuedEvent event) {
+    wakeUp();
+  }
+
+  public void wakeUp() {
+    synchronized (signal) {
+      signalled = true;
+      signal.notifyAll();
+    }
+  }
+
+  private void dispatchLoop() {
+    long minWait = Math.max(minPollMs, 1);
+    long maxWait = Math.max(workerIntervalSeconds * 1000L, minWait);
+    long idleWait = minWait;
+    while (running) {
+      try {
+        int claimed = processOutbox();
+        if (claimed >= Math.max(workerBatchSize, 1)) {
+          idleWait = minWait;
+          continue;
+        }
+        if (claimed > 0) {
+          idleWait = minWait;
+          awaitSignal(minWait);
+        } else {
+          awaitSignal(idleWait);
+          idleWait = Math.min(idleWait * 2, maxWait);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
         return;
+      } catch (Exception e) {
+        log.error("Error in outbox dispatcher", e);
       }
+    }
+  }
 
-      log.info("Processing {} outbox tasks", tasks.size());
-
-      for (OutboxEntity task : tasks) {
-        processTask(task);
+  private void awaitSignal(long timeoutMs) throws InterruptedException {
+    synchronized (signal) {
+      if (!signalled) {
+        signal.wait(timeoutMs);
       }
+      signalled = false;
+    }
+  }
+
+  /**
+   * 认领一批任务，按线程数切成若干子批并行处理，等待全部结束后返回认领数。
+   *
+   * <p>认领在 {@link OutboxService#claimTasks} 的短事务里完成，不再在整批处理期间持有行锁。
+   * 每轮最多认领 batch-size 个任务，本批处理完才认领下一批，
+   * 节点忙不过来时任务留在表里，由其他节点取走（背压）。
+   */
+  public int processOutbox() {
+    List<OutboxEntity> tasks;
+    try {
+      tasks = outboxService.claimTasks(Math.max(workerBatchSize, 1));
     } catch (Exception e) {
-      log.error("Error processing outbox", e);
+      log.error("Error claiming outbox tasks", e);
+      return 0;
+    }
+    if (tasks.isEmpty()) {
+      return 0;
+    }
+
+    log.debug("Processing {} outbox tasks", tasks.size());
+    ExecutorService pool = executor();
+    int chunkSize = (tasks.size() + Math.max(concurrency, 1) - 1) / Math.max(concurrency, 1);
+    List<List<OutboxEntity>> chunks = new ArrayList<>();
+    for (int i = 0; i < tasks.size(); i += chunkSize) {
+      chunks.add(tasks.subList(i, Math.min(i + chunkSize, tasks.size())));
     }
+    CountDownLatch done = new CountDownLatch(chunks.size());
+    for (List<OutboxEntity> chunk : chunks) {
+      try {
+        pool.execute(() -> {
+          try {
+            processChunk(chunk);
+          } finally {
+            done.countDown();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        // 关闭过程中提交失败：任务保持 PROCESSING，租约到期后由 OutboxLeaseReaper 放回队列
+        done.countDown();
+        log.warn("Outbox worker pool rejected {} tasks", chunk.size());
+      }
+    }
+    try {
+      done.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return tasks.size();
   }
 
-  private void processTask(OutboxEntity task) {
+  /**
+   * 批量处理一个子批：文章、评论各一条查询加载，评估后在同一事务内批量写回审核状态、审计日志并完成任务。
+   * 批内未加载到实体的任务、以及整批写回失败时的全部任务，退回逐条处理以便单独计失败次数。
+   */
+  private void processChunk(List<OutboxEntity> tasks) {
+    if (tasks.size() == 1) {
+      processTask(tasks.get(0));
+      return;
+    }
+    List<OutboxEntity> fallback = new ArrayList<>();
+    Map<OutboxEntity, RuleEngine.RuleResult> decided = new LinkedHashMap<>();
     try {
-      outboxService.markProcessing(task.getId());
+      inTransaction(() -> {
+        fallback.clear();
+        decided.clear();
+        fallback.addAll(processBatch(tasks, decided));
+      });
+      decided.forEach((task, result) -> metrics.recordDecision(task.getEntityType(), result, task.getCreatedAt()));
+    } catch (Exception e) {
+      log.warn("Batch moderation of {} tasks failed, retrying one by one: {}", tasks.size(), e.getMessage());
+      fallback.clear();
+      fallback.addAll(tasks);
+    }
+    for (OutboxEntity task : fallback) {
+      processTask(task);
+    }
+  }
+
+  /**
+   * 返回需要逐条处理的任务；得出结论的任务写入 decided，事务提交后再计入指标。
+   */
+  private List<OutboxEntity> processBatch(List<OutboxEntity> tasks, Map<OutboxEntity, RuleEngine.RuleResult> decided) {
+    Set<Long> postIds = new LinkedHashSet<>();
+    Set<Long> commentIds = new LinkedHashSet<>();
+    for (OutboxEntity task : tasks) {
+      if ("POST".equals(task.getEntityType())) {
+        postIds.add(task.getEntityId());
+      } else if ("COMMENT".equals(task.getEntityType())) {
+        commentIds.add(task.getEntityId());
+      }
+    }
+    Map<Long, PostEntity> posts = new HashMap<>();
+    if (!postIds.isEmpty()) {
+      for (PostEntity p : postMapper.selectModerationInputs(postIds)) {
+        posts.put(p.getId(), p);
+      }
+    }
+    Map<Long, CommentEntity> comments = new HashMap<>();
+    if (!commentIds.isEmpty()) {
+      for (CommentEntity c : commentMapper.selectBatchIds(commentIds)) {
+        comments.put(c.getId(), c);
+      }
+    }
+
+    List<ModerationDecision> postDecisions = new ArrayList<>();
+    List<ModerationDecision> commentDecisions = new ArrayList<>();
+    Map<Long, RuleEngine.RuleResult> postResults = new HashMap<>();
+    Map<Long, RuleEngine.RuleResult> commentResults = new HashMap<>();
+    List<Long> completed = new ArrayList<>();
+    List<OutboxEntity> fallback = new ArrayList<>();
+    for (OutboxEntity task : tasks) {
+      Long id = task.getEntityId();
+      if ("POST".equals(task.getEntityType()) && posts.containsKey(id)) {
+        RuleEngine.RuleResult result = postResults.get(id);
+        if (result == null) {
+          PostEntity post = posts.get(id);
+          result = ruleEngine.evaluate(post.getTitle(), post.getContentMarkdown());
+          postResults.put(id, result);
+          postDecisions.add(new ModerationDecision(id, result));
+        }
+        decided.put(task, result);
+        completed.add(task.getId());
+      } else if ("COMMENT".equals(task.getEntityType()) && comments.containsKey(id)) {
+        RuleEngine.RuleResult result = commentResults.get(id);
+        if (result == null) {
+          result = ruleEngine.evaluate("", comments.get(id).getContent());
+          commentResults.put(id, result);
+          commentDecisions.add(new ModerationDecision(id, result));
+        }
+        decided.put(task, result);
+        completed.add(task.getId());
+      } else {
+        fallback.add(task);
+      }
+    }
 
-    if ("POST".equals(task.getEntityType())) {
-      processPost(task);
-    } else if ("COMMENT".equals(task.getEntityType())) {
-      processComment(task);
-    } else {
-      log.warn("Unknown entity type: {}", task.getEntityType());
+    if (!postDecisions.isEmpty()) {
+      moderationService.applyPostDecisions(postDecisions, posts);
+    }
+    if (!commentDecisions.isEmpty()) {
+      moderationService.applyCommentDecisions(commentDecisions, comments);
+    }
+    if (!completed.isEmpty() && outboxService.markCompletedBatch(completed) != completed.size()) {
+      // 部分租约已丢失：回滚整批，逐条处理时各自识别
+      throw new LeaseLostException();
+    }
+    return fallback;
+  }
+
+  private ExecutorService executor() {
+    ExecutorService pool = executor;
+    if (pool == null) {
+      synchronized (this) {
+        pool = executor;
+        if (pool == null) {
+          int threads = Math.max(concurrency, 1);
+          AtomicInteger seq = new AtomicInteger();
+          ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "outbox-worker-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+          };
+          pool = Executors.newFixedThreadPool(threads, factory);
+          executor = pool;
+        }
+      }
+    }
+    return pool;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    running = false;
+    Thread t = dispatcher;
+    if (t != null) {
+      t.interrupt();
+    }
+    ExecutorService pool = executor;
+    if (pool == null) {
+      return;
     }
+    pool.shutdown();
+    try {
+      if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+        pool.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      pool.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
 
-      outboxService.markCompleted(task.getId());
-      log.info("Processed outbox task: {} {}", task.getEntityType(), task.getEntityId());
+  private void processTask(OutboxEntity task) {
+    RuleEngine.RuleResult[] decided = new RuleEngine.RuleResult[1];
+    try {
+      inTransaction(() -> {
+        decided[0] = null;
+        if ("POST".equals(task.getEntityType())) {
+          decided[0] = processPost(task);
+        } else if ("COMMENT".equals(task.getEntityType())) {
+          decided[0] = processComment(task);
+        } else {
+          log.warn("Unknown entity type: {}", task.getEntityType());
+        }
+        if (outboxService.markCompleted(task.getId()) == 0) {
+          // 租约已过期并被回收：回滚本次处理结果，交给新的持有者
+          throw new LeaseLostException();
+        }
+      });
+      log.debug("Processed outbox task: {} {}", task.getEntityType(), task.getEntityId());
+      if (decided[0] != null) {
+        metrics.recordDecision(task.getEntityType(), decided[0], task.getCreatedAt());
+      } else {
+        metrics.recordOutcome(task.getEntityType(), "not_found");
+      }
+    } catch (LeaseLostException e) {
+      log.warn("Lease lost for outbox task {}, discarding result: {} {}", task.getId(), task.getEntityType(), task.getEntityId());
+      metrics.recordOutcome(task.getEntityType(), "lease_lost");
     } catch (Exception e) {
       log.error("Error processing outbox task: {} {}", task.getEntityType(), task.getEntityId(), e);
-      if (task.getAttempts() + 1 >= 3) {
-        outboxService.markDeadLetter(task.getId(), e.getMessage());
+      int attempts = task.getAttempts() != null ? task.getAttempts() : 0;
+      if (attempts + 1 >= 3) {
+        outboxService.markDeadLetter(task.getId(), e);
+        metrics.recordOutcome(task.getEntityType(), "dead_letter");
       } else {
-        outboxService.markFailed(task.getId(), e.getMessage());
+        outboxService.markFailed(task.getId(), attempts, e);
+        metrics.recordOutcome(task.getEntityType(), "failed");
       }
     }
   }
 
-  private void processPost(OutboxEntity task) {
+  private static final class LeaseLostException extends RuntimeException {
+    private LeaseLostException() {
+      super(null, null, false, false);
+    }
+  }
+
+  private void inTransaction(Runnable action) {
+    transactionTemplate.executeWithoutResult(status -> action.run());
+  }
+
+  private RuleEngine.RuleResult processPost(OutboxEntity task) {
     PostEntity post = postMapper.selectById(task.getEntityId());
     if (post == null) {
       log.warn("Post not found for outbox task: {}", task.getEntityId());
-      return;
+      return null;
     }
 
     RuleEngine.RuleResult result = ruleEngine.evaluate(post.getTitle(), post.getContentMarkdown());
     ModerationStatus newStatus = result.getStatus();
 
     if (newStatus == ModerationStatus.APPROVED) {
-      moderationService.updateModerationStatus(post.getId(), ModerationStatus.APPROVED, null, null);
+      moderationService.updateModerationStatus(post.getId(), ModerationStatus.APPROVED, null, null, result.getRuleVersion());
     } else if (newStatus == ModerationStatus.REJECTED) {
-      moderationService.updateModerationStatus(post.getId(), ModerationStatus.REJECTED, result.getReason(), result.getRuleHit());
+      moderationService.updateModerationStatus(post.getId(), ModerationStatus.REJECTED, result.getReason(), result.getRuleHit(), result.getRuleVersion());
     } else if (newStatus == ModerationStatus.NEEDS_REVIEW) {
-      moderationService.updateModerationStatus(post.getId(), ModerationStatus.NEEDS_REVIEW, result.getReason(), result.getRuleHit());
+      moderationService.updateModerationStatus(post.getId(), ModerationStatus.NEEDS_REVIEW, result.getReason(), result.getRuleHit(), result.getRuleVersion());
     }
+    return result;
   }
 
-  private void processComment(OutboxEntity task) {
+  private RuleEngine.RuleResult processComment(OutboxEntity task) {
     CommentEntity comment = commentMapper.selectById(task.getEntityId());
     if (comment == null) {
       log.warn("Comment not found for outbox task: {}", task.getEntityId());
-      return;
+      return null;
     }
 
     RuleEngine.RuleResult result = ruleEngine.evaluate("", comment.getContent());
     ModerationStatus newStatus = result.getStatus();
 
     if (newStatus == ModerationStatus.APPROVED) {
-      moderationService.updateCommentModerationStatus(comment.getId(), ModerationStatus.APPROVED, null, null);
+      moderationService.updateCommentModerationStatus(comment.getId(), ModerationStatus.APPROVED, null, null, result.getRuleVersion());
     } else if (newStatus == ModerationStatus.REJECTED) {
-      moderationService.updateCommentModerationStatus(comment.getId(), ModerationStatus.REJECTED, result.getReason(), result.getRuleHit());
+      moderationService.updateCommentModerationStatus(comment.getId(), ModerationStatus.REJECTED, result.getReason(), result.getRuleHit(), result.getRuleVersion());
     } else if (newStatus == ModerationStatus.NEEDS_REVIEW) {
-      moderationService.updateCommentModerationStatus(comment.getId(), ModerationStatus.NEEDS_REVIEW, result.getReason(), result.getRuleHit());
+      moderationService.updateCommentModerationStatus(comment.getId(), ModerationStatus.NEEDS_REVIEW, result.getReason(), result.getRuleHit(), result.getRuleVersion());
     }
+    return result;
   }
 
   public void logAudit(String entityType, Long entityId, Long actorId, AuditAction action, String reason, String ruleHit) {
+    logAudit(entityType, entityId, actorId, action, reason, ruleHit, null);
+  }
+
+  public void logAudit(String entityType, Long entityId, Long actorId, AuditAction action, String reason, String ruleHit, Integer ruleVersion) {
+    auditLogMapper.insert(newAuditLog(entityType, entityId, actorId, action, reason, ruleHit, ruleVersion));
+  }
+
+  static AuditLogEntity newAuditLog(String entityType, Long entityId, Long actorId, AuditAction action, String reason, String ruleHit, Integer ruleVersion) {
     AuditLogEntity log = new AuditLogEntity();
     log.setEntityType(entityType);
     log.setEntityId(entityId);
@@ -149,7 +451,8 @@ public class WorkerService {
     log.setAction(action.name());
     log.setReason(reason);
     log.setRuleHit(ruleHit);
+    log.setRuleVersion(ruleVersion);
     log.setCreatedAt(LocalDateTime.now());
-    auditLogMapper.insert(log);
+    return log;
   }
 }
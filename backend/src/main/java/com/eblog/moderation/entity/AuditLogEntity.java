@@ -12,6 +12,7 @@ public class AuditLogEntity {
   private String action;
   private String reason;
   private String ruleHit;
+  private Integer ruleVersion;
   private LocalDateTime createdAt;
 
   public Long getId() {
@@ -70,6 +71,14 @@ public class AuditLogEntity {
     this.ruleHit = ruleHit;
   }
 
+  public Integer getRuleVersion() {
+    return ruleVersion;
+  }
+
+  public void setRuleVersion(Integer ruleVersion) {
+    this.ruleVersion = ruleVersion;
+  }
+
   public LocalDateTime getCreatedAt() {
     return createdAt;
   }
@@ -0,0 +1,71 @@
+package com.eblog.moderation.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import java.time.LocalDateTime;
+
+@TableName("moderation_rules")
+public class ModerationRuleSetEntity {
+  private Long id;
+  private Integer version;
+  private String sensitiveWords;
+  private Integer maxExternalLinks;
+  private String note;
+  private Long publishedBy;
+  private LocalDateTime createdAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Integer getVersion() {
+    return version;
+  }
+
+  public void setVersion(Integer version) {
+    this.version = version;
+  }
+
+  public String getSensitiveWords() {
+    return sensitiveWords;
+  }
+
+  public void setSensitiveWords(String sensitiveWords) {
+    this.sensitiveWords = sensitiveWords;
+  }
+
+  public Integer getMaxExternalLinks() {
+    return maxExternalLinks;
+  }
+
+  public void setMaxExternalLinks(Integer maxExternalLinks) {
+    this.maxExternalLinks = maxExternalLinks;
+  }
+
+  public String getNote() {
+    return note;
+  }
+
+  public void setNote(String note) {
+    this.note = note;
+  }
+
+  public Long getPublishedBy() {
+    return publishedBy;
+  }
+
+  public void setPublishedBy(Long publishedBy) {
+    this.publishedBy = publishedBy;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+}
@@ -13,8 +13,12 @@ public class OutboxEntity {
   private LocalDateTime updatedAt;
   private Integer attempts;
   private String lastError;
+  private String lastErrorClass;
   private String deduplicationKey;
   private LocalDateTime deduplicationKeyUpdatedAt;
+  private String claimedBy;
+  private LocalDateTime leaseExpiresAt;
+  private LocalDateTime nextAttemptAt;
 
   public Long getId() {
     return id;
@@ -80,6 +84,14 @@ public class OutboxEntity {
     this.lastError = lastError;
   }
 
+  public String getLastErrorClass() {
+    return lastErrorClass;
+  }
+
+  public void setLastErrorClass(String lastErrorClass) {
+    this.lastErrorClass = lastErrorClass;
+  }
+
   public String getDeduplicationKey() {
     return deduplicationKey;
   }
@@ -95,4 +107,28 @@ public class OutboxEntity {
   public void setDeduplicationKeyUpdatedAt(LocalDateTime deduplicationKeyUpdatedAt) {
     this.deduplicationKeyUpdatedAt = deduplicationKeyUpdatedAt;
   }
+
+  public String getClaimedBy() {
+    return claimedBy;
+  }
+
+  public void setClaimedBy(String claimedBy) {
+    this.claimedBy = claimedBy;
+  }
+
+  public LocalDateTime getLeaseExpiresAt() {
+    return leaseExpiresAt;
+  }
+
+  public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+    this.leaseExpiresAt = leaseExpiresAt;
+  }
+
+  public LocalDateTime getNextAttemptAt() {
+    return nextAttemptAt;
+  }
+
+  public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+    this.nextAttemptAt = nextAttemptAt;
+  }
 }
@@ -3,8 +3,19 @@ package com.eblog.moderation.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.eblog.moderation.entity.AuditLogEntity;
 import java.util.List;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 @Mapper
 public interface AuditLogMapper extends BaseMapper<AuditLogEntity> {
+
+  // 一条多行 INSERT 写入整批审计日志
+  @Insert("<script>" +
+      "INSERT INTO audit_logs (entity_type, entity_id, actor_id, action, reason, rule_hit, rule_version, created_at) VALUES " +
+      "<foreach collection='logs' item='l' separator=','>" +
+      "(#{l.entityType}, #{l.entityId}, #{l.actorId}, #{l.action}, #{l.reason}, #{l.ruleHit}, #{l.ruleVersion}, #{l.createdAt})" +
+      "</foreach>" +
+      "</script>")
+  int insertBatch(@Param("logs") List<AuditLogEntity> logs);
 }
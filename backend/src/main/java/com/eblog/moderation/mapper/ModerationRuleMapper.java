@@ -0,0 +1,26 @@
+package com.eblog.moderation.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.eblog.moderation.entity.ModerationRuleSetEntity;
+import java.util.List;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+@Mapper
+public interface ModerationRuleMapper extends BaseMapper<ModerationRuleSetEntity> {
+
+  @Select("SELECT MAX(version) FROM moderation_rules")
+  Integer selectLatestVersion();
+
+  @Select("SELECT * FROM moderation_rules ORDER BY version DESC LIMIT 1")
+  ModerationRuleSetEntity selectLatest();
+
+  @Select("""
+      SELECT id, version, max_external_links, note, published_by, created_at
+      FROM moderation_rules
+      ORDER BY version DESC
+      LIMIT #{limit}
+      """)
+  List<ModerationRuleSetEntity> listHistory(@Param("limit") int limit);
+}
@@ -1,8 +1,13 @@
 package com.eblog.moderation.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.eblog.moderation.DeadLetterCount;
+import com.eblog.moderation.OutboxStatusCount;
 import com.eblog.moderation.entity.OutboxEntity;
+import java.time.LocalDateTime;
 import java.util.List;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -15,43 +20,180 @@ public interface OutboxMapper extends BaseMapper<OutboxEntity> {
       SELECT * FROM moderation_outbox
       WHERE status IN ('PENDING', 'FAILED')
       AND attempts < 3
-      ORDER BY created_at ASC
+      AND next_attempt_at <= NOW()
+      ORDER BY next_attempt_at ASC, id ASC
       LIMIT #{limit}
       FOR UPDATE SKIP LOCKED
       """)
   List<OutboxEntity> lockPendingTasks(@Param("limit") int limit);
 
   @Update("""
+      <script>
       UPDATE moderation_outbox
-      SET status = 'PROCESSING', updated_at = NOW()
-      WHERE id = #{id}
+      SET status = 'PROCESSING',
+          claimed_by = #{owner},
+          lease_expires_at = DATE_ADD(NOW(), INTERVAL #{leaseSeconds} SECOND),
+          updated_at = NOW()
+      WHERE id IN
+      <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+      </script>
       """)
-  int markProcessing(@Param("id") Long id);
+  int markProcessingBatch(@Param("ids") List<Long> ids, @Param("owner") String owner, @Param("leaseSeconds") int leaseSeconds);
+
+  // 以下收尾操作都要求租约仍由当前节点持有：租约过期被回收并由其他节点重新认领后，旧持有者的写入不生效
 
   @Update("""
       UPDATE moderation_outbox
-      SET status = 'COMPLETED', updated_at = NOW()
-      WHERE id = #{id}
+      SET status = 'COMPLETED', claimed_by = NULL, lease_expires_at = NULL, updated_at = NOW()
+      WHERE id = #{id} AND status = 'PROCESSING' AND claimed_by = #{owner}
       """)
-  int markCompleted(@Param("id") Long id);
+  int markCompleted(@Param("id") Long id, @Param("owner") String owner);
+
+  @Update("""
+      <script>
+      UPDATE moderation_outbox
+      SET status = 'COMPLETED', claimed_by = NULL, lease_expires_at = NULL, updated_at = NOW()
+      WHERE status = 'PROCESSING' AND claimed_by = #{owner} AND id IN
+      <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+      </script>
+      """)
+  int markCompletedBatch(@Param("ids") List<Long> ids, @Param("owner") String owner);
 
   @Update("""
       UPDATE moderation_outbox
       SET status = 'FAILED',
           attempts = attempts + 1,
           last_error = #{error},
+          last_error_class = #{errorClass},
+          claimed_by = NULL,
+          lease_expires_at = NULL,
+          next_attempt_at = DATE_ADD(NOW(), INTERVAL #{delaySeconds} SECOND),
           updated_at = NOW()
-      WHERE id = #{id}
+      WHERE id = #{id} AND status = 'PROCESSING' AND claimed_by = #{owner}
       """)
-  int markFailed(@Param("id") Long id, @Param("error") String error);
+  int markFailed(
+      @Param("id") Long id,
+      @Param("owner") String owner,
+      @Param("error") String error,
+      @Param("errorClass") String errorClass,
+      @Param("delaySeconds") long delaySeconds);
 
   @Update("""
       UPDATE moderation_outbox
       SET status = 'DEAD_LETTER',
           attempts = attempts + 1,
           last_error = #{error},
+          last_error_class = #{errorClass},
+          claimed_by = NULL,
+          lease_expires_at = NULL,
+          updated_at = NOW()
+      WHERE id = #{id} AND status = 'PROCESSING' AND claimed_by = #{owner}
+      """)
+  int markDeadLetter(@Param("id") Long id, @Param("owner") String owner, @Param("error") String error, @Param("errorClass") String errorClass);
+
+  /**
+   * 回收租约已过期的 PROCESSING 任务（持有节点宕机或卡死）：计一次失败，未超过重试上限的放回 PENDING，
+   * 否则进入 DEAD_LETTER。升级前遗留的无租约 PROCESSING 任务按 updated_at 判断。
+   *
+   * <p>MySQL 按书写顺序求值 SET，status 必须写在 attempts 自增之前。
+   */
+  @Update("""
+      UPDATE moderation_outbox
+      SET status = CASE WHEN attempts + 1 >= 3 THEN 'DEAD_LETTER' ELSE 'PENDING' END,
+          attempts = attempts + 1,
+          last_error = CONCAT('lease expired: ', COALESCE(claimed_by, 'unknown')),
+          last_error_class = 'LeaseExpired',
+          claimed_by = NULL,
+          lease_expires_at = NULL,
+          next_attempt_at = NOW(),
+          updated_at = NOW()
+      WHERE status = 'PROCESSING'
+      AND (lease_expires_at < NOW()
+        OR (lease_expires_at IS NULL AND updated_at < DATE_SUB(NOW(), INTERVAL #{leaseSeconds} SECOND)))
+      LIMIT #{limit}
+      """)
+  int releaseExpiredLeases(@Param("leaseSeconds") int leaseSeconds, @Param("limit") int limit);
+
+  // 归档：按 updated_at 顺序取超过保留期的终态任务并加锁，走 idx_moderation_outbox_retention
+  @Select("""
+      SELECT id FROM moderation_outbox
+      WHERE status = #{status} AND updated_at < #{before}
+      ORDER BY updated_at ASC
+      LIMIT #{limit}
+      FOR UPDATE SKIP LOCKED
+      """)
+  List<Long> selectArchivableIds(@Param("status") String status, @Param("before") LocalDateTime before, @Param("limit") int limit);
+
+  @Insert("""
+      <script>
+      INSERT INTO moderation_outbox_archive
+        (id, entity_type, entity_id, status, attempts, last_error, last_error_class, deduplication_key, created_at, updated_at, archived_at)
+      SELECT id, entity_type, entity_id, status, attempts, last_error, last_error_class, deduplication_key, created_at, updated_at, NOW()
+      FROM moderation_outbox
+      WHERE id IN
+      <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+      </script>
+      """)
+  int copyToArchive(@Param("ids") List<Long> ids);
+
+  @Delete("""
+      <script>
+      DELETE FROM moderation_outbox
+      WHERE status IN ('COMPLETED', 'DEAD_LETTER') AND id IN
+      <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+      </script>
+      """)
+  int deleteArchived(@Param("ids") List<Long> ids);
+
+  @Delete("DELETE FROM moderation_outbox_archive WHERE archived_at < #{before} LIMIT #{limit}")
+  int purgeArchive(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+  // 死信查询：按 id 游标翻页，走 idx_moderation_outbox_error
+  @Select("""
+      <script>
+      SELECT id, entity_type, entity_id, status, attempts, last_error, last_error_class, deduplication_key, created_at, updated_at
+      FROM moderation_outbox
+      WHERE status = 'DEAD_LETTER'
+      <if test="entityType != null"> AND entity_type = #{entityType}</if>
+      <if test="errorClass != null"> AND last_error_class = #{errorClass}</if>
+      <if test="afterId != null"> AND id &gt; #{afterId}</if>
+      ORDER BY id ASC
+      LIMIT #{limit}
+      </script>
+      """)
+  List<OutboxEntity> listDeadLetters(
+      @Param("entityType") String entityType,
+      @Param("errorClass") String errorClass,
+      @Param("afterId") Long afterId,
+      @Param("limit") int limit);
+
+  @Select("""
+      SELECT entity_type, last_error_class AS error_class, COUNT(*) AS count
+      FROM moderation_outbox
+      WHERE status = 'DEAD_LETTER'
+      GROUP BY entity_type, last_error_class
+      ORDER BY count DESC
+      """)
+  List<DeadLetterCount> countDeadLetters();
+
+  @Select("SELECT status, COUNT(*) AS count FROM moderation_outbox GROUP BY status")
+  List<OutboxStatusCount> countByStatus();
+
+  /**
+   * 死信重放：重置为 PENDING 并清零重试次数，next_attempt_at 由调用方错开以限流。
+   */
+  @Update("""
+      <script>
+      UPDATE moderation_outbox
+      SET status = 'PENDING',
+          attempts = 0,
+          claimed_by = NULL,
+          lease_expires_at = NULL,
+          next_attempt_at = DATE_ADD(NOW(), INTERVAL #{delaySeconds} SECOND),
           updated_at = NOW()
-      WHERE id = #{id}
+      WHERE status = 'DEAD_LETTER' AND id IN
+      <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+      </script>
       """)
-  int markDeadLetter(@Param("id") Long id, @Param("error") String error);
+  int requeueDeadLetters(@Param("ids") List<Long> ids, @Param("delaySeconds") long delaySeconds);
 }
@@ -0,0 +1,70 @@
+package com.eblog.post;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 回填 posts.content_html：渲染器版本（MarkdownRenderer.VERSION）升级或历史数据未渲染时，
+ * 按主键顺序分批重新渲染，保证读路径只做列读取。
+ */
+@Component
+public class ContentHtmlBackfillJob {
+
+  private static final Logger log = LoggerFactory.getLogger(ContentHtmlBackfillJob.class);
+
+  private final PostMapper postMapper;
+  private final MarkdownRenderer markdownRenderer;
+  private final RenderedHtmlCache renderedHtmlCache;
+
+  @Value("${app.posts.html-backfill.enabled:true}")
+  private boolean enabled = true;
+
+  @Value("${app.posts.html-backfill.batch-size:100}")
+  private int batchSize = 100;
+
+  public ContentHtmlBackfillJob(PostMapper postMapper, MarkdownRenderer markdownRenderer, RenderedHtmlCache renderedHtmlCache) {
+    this.postMapper = postMapper;
+    this.markdownRenderer = markdownRenderer;
+    this.renderedHtmlCache = renderedHtmlCache;
+  }
+
+  @Scheduled(
+    fixedDelayString = "${app.posts.html-backfill.interval-ms:60000}",
+    initialDelayString = "${app.posts.html-backfill.interval-ms:60000}"
+  )
+  public void run() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      int updated = backfill();
+      if (updated > 0) {
+        log.info("Backfilled content_html for {} posts (renderer version {})", updated, MarkdownRenderer.VERSION);
+      }
+    } catch (Exception e) {
+      log.error("Error backfilling content_html", e);
+    }
+  }
+
+  public int backfill() {
+    int safeBatch = Math.min(Math.max(batchSize, 1), 1000);
+    long afterId = 0;
+    int updated = 0;
+    while (true) {
+      List<PostEntity> posts = postMapper.listStaleContentHtml(afterId, MarkdownRenderer.VERSION, safeBatch);
+      for (PostEntity p : posts) {
+        afterId = p.getId();
+        String html = "MDX".equalsIgnoreCase(p.getFormat()) ? null : markdownRenderer.renderToHtml(p.getContentMarkdown());
+        updated += postMapper.updateContentHtml(p.getId(), html, MarkdownRenderer.VERSION);
+        renderedHtmlCache.invalidate(p.getId());
+      }
+      if (posts.size() < safeBatch) {
+        return updated;
+      }
+    }
+  }
+}
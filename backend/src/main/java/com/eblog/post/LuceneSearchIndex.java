@@ -0,0 +1,365 @@
+package com.eblog.post;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 进程内倒排索引搜索（app.search.engine=lucene）。
+ *
+ * <p>索引存放在本地磁盘（app.search.lucene.path），只收录已发布且审核通过的文章。标题、摘要、正文用 CJK
+ * 二元分词（中文按相邻两字切分，英文按词），BM25 打分，标题、摘要加权；标签、作者、置顶作为过滤条件，
+ * 不参与打分。文章编辑、归档和审核结论通过 {@link PostChangedEvent} 在事务提交后增量更新，
+ * 近实时可见；定时 commit 落盘。
+ *
+ * <p>只有带关键词且不带游标的查询走索引，结果按相关度排序、用 offset 翻页；其余查询（纯标签浏览、
+ * 旧游标续翻）仍交给 {@link MysqlSearchIndex}，保持时间序与游标语义。
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "lucene")
+public class LuceneSearchIndex implements SearchIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(LuceneSearchIndex.class);
+
+  static final String FIELD_ID = "id";
+  static final String FIELD_AUTHOR = "author_id";
+  static final String FIELD_TAG = "tag";
+  static final String FIELD_PINNED = "pinned";
+  static final String FIELD_TITLE = "title";
+  static final String FIELD_SUMMARY = "summary";
+  static final String FIELD_CONTENT = "content";
+
+  // 相关度结果只取前若干条，更深的翻页没有意义且代价随 offset 线性增长
+  static final int MAX_WINDOW = 1000;
+
+  private final PostMapper postMapper;
+  private final MysqlSearchIndex fallback;
+  private final Analyzer analyzer = new CJKAnalyzer();
+  private final Directory directory;
+  private final IndexWriter writer;
+  private final SearcherManager searcherManager;
+  private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+  @Value("${app.search.lucene.rebuild-on-startup:true}")
+  private boolean rebuildOnStartup = true;
+
+  @Value("${app.search.lucene.rebuild-batch-size:500}")
+  private int rebuildBatchSize = 500;
+
+  /**
+   * 非关键词查询交给的 MySQL 实现与 app.search.engine=mysql 时读取同一组 app.search.mysql.* 配置。
+   */
+  @Autowired
+  public LuceneSearchIndex(
+      PostMapper postMapper,
+      @Value("${app.search.lucene.path:data/search-index}") String path,
+      @Value("${app.search.mysql.mode:natural}") String mysqlMode,
+      @Value("${app.search.mysql.order:time}") String mysqlOrder) {
+    this(postMapper, new MysqlSearchIndex(postMapper, mysqlMode, mysqlOrder), Paths.get(path));
+  }
+
+  LuceneSearchIndex(PostMapper postMapper, MysqlSearchIndex fallback, Path path) {
+    this.postMapper = postMapper;
+    this.fallback = fallback;
+    try {
+      Files.createDirectories(path);
+      this.directory = FSDirectory.open(path);
+      IndexWriterConfig config = new IndexWriterConfig(analyzer);
+      config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+      config.setSimilarity(new BM25Similarity());
+      this.writer = new IndexWriter(directory, config);
+      this.searcherManager = new SearcherManager(writer, new SearcherFactory() {
+        @Override
+        public IndexSearcher newSearcher(IndexReader reader, IndexReader previous) {
+          IndexSearcher searcher = new IndexSearcher(reader);
+          searcher.setSimilarity(new BM25Similarity());
+          return searcher;
+        }
+      });
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot open search index at " + path, e);
+    }
+  }
+
+  @Override
+  public boolean ranksByRelevance(SearchQuery query) {
+    return query.getQ() != null && query.getCursor() == null;
+  }
+
+  @Override
+  public List<PostEntity> search(SearchQuery query) {
+    if (!ranksByRelevance(query)) {
+      return fallback.search(query);
+    }
+    List<Long> ids;
+    try {
+      ids = searchIds(query);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (ids.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Map<Long, PostEntity> byId = new HashMap<>();
+    for (PostEntity p : postMapper.selectPublicByIds(ids)) {
+      byId.put(p.getId(), p);
+    }
+    List<PostEntity> res = new ArrayList<>(ids.size());
+    for (Long id : ids) {
+      PostEntity p = byId.get(id);
+      if (p != null) {
+        res.add(p);
+      }
+    }
+    return res;
+  }
+
+  List<Long> searchIds(SearchQuery query) throws IOException {
+    int window = query.getOffset() + query.getLimit();
+    Query luceneQuery = buildQuery(query);
+    if (window > MAX_WINDOW || luceneQuery == null) {
+      return Collections.emptyList();
+    }
+    List<Long> ids = new ArrayList<>();
+    IndexSearcher searcher = searcherManager.acquire();
+    try {
+      TopDocs top = searcher.search(luceneQuery, window);
+      StoredFields stored = searcher.storedFields();
+      for (int i = query.getOffset(); i < top.scoreDocs.length; i++) {
+        ids.add(Long.valueOf(stored.document(top.scoreDocs[i].doc).get(FIELD_ID)));
+      }
+    } finally {
+      searcherManager.release(searcher);
+    }
+    return ids;
+  }
+
+  /**
+   * 关键词在三个文本字段上分别分词后按 SHOULD 组合（BM25 累加打分），过滤条件作为 FILTER 子句。
+   * 关键词分词后为空（例如只有停用词）时返回 null。
+   */
+  Query buildQuery(SearchQuery query) {
+    QueryBuilder builder = new QueryBuilder(analyzer);
+    BooleanQuery.Builder text = new BooleanQuery.Builder();
+    addText(text, builder.createBooleanQuery(FIELD_TITLE, query.getQ()), 3f);
+    addText(text, builder.createBooleanQuery(FIELD_SUMMARY, query.getQ()), 2f);
+    addText(text, builder.createBooleanQuery(FIELD_CONTENT, query.getQ()), 1f);
+    BooleanQuery textQuery = text.build();
+    if (textQuery.clauses().isEmpty()) {
+      return null;
+    }
+
+    BooleanQuery.Builder res = new BooleanQuery.Builder();
+    res.add(textQuery, BooleanClause.Occur.MUST);
+    if (query.getTag() != null) {
+      res.add(new TermQuery(new Term(FIELD_TAG, query.getTag())), BooleanClause.Occur.FILTER);
+    }
+    if (query.getAuthorId() != null) {
+      res.add(LongPoint.newExactQuery(FIELD_AUTHOR, query.getAuthorId()), BooleanClause.Occur.FILTER);
+    }
+    if (query.getPinned() != null) {
+      res.add(new TermQuery(new Term(FIELD_PINNED, query.getPinned() ? "1" : "0")), BooleanClause.Occur.FILTER);
+    }
+    return res.build();
+  }
+
+  private static void addText(BooleanQuery.Builder text, Query q, float boost) {
+    if (q != null) {
+      text.add(new BoostQuery(q, boost), BooleanClause.Occur.SHOULD);
+    }
+  }
+
+  static Document toDocument(PostEntity post) {
+    Document doc = new Document();
+    doc.add(new StringField(FIELD_ID, String.valueOf(post.getId()), Field.Store.YES));
+    if (post.getAuthorId() != null) {
+      doc.add(new LongPoint(FIELD_AUTHOR, post.getAuthorId()));
+    }
+    for (String tag : TagParser.parseTags(post.getTagsCsv())) {
+      doc.add(new StringField(FIELD_TAG, tag, Field.Store.NO));
+    }
+    doc.add(new StringField(FIELD_PINNED, Boolean.TRUE.equals(post.getIsPinned()) ? "1" : "0", Field.Store.NO));
+    addTextField(doc, FIELD_TITLE, post.getTitle());
+    addTextField(doc, FIELD_SUMMARY, post.getSummary());
+    addTextField(doc, FIELD_CONTENT, post.getContentMarkdown());
+    return doc;
+  }
+
+  private static void addTextField(Document doc, String field, String value) {
+    if (value != null && !value.isEmpty()) {
+      doc.add(new TextField(field, value, Field.Store.NO));
+    }
+  }
+
+  static boolean isSearchable(PostEntity post) {
+    return "PUBLISHED".equals(post.getStatus()) && "APPROVED".equals(post.getModerationStatus());
+  }
+
+  /**
+   * 事务提交后按 ID 重新加载文章：可见的写入（覆盖旧文档），不可见或已删除的从索引移除。
+   * 索引失败只记日志，不影响业务事务；遗漏可通过重建修复。
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPostChanged(PostChangedEvent event) {
+    try {
+      refresh(event.getPostIds());
+    } catch (Exception e) {
+      log.warn("Failed to update search index for posts {}", event.getPostIds(), e);
+    }
+  }
+
+  public void refresh(Collection<Long> postIds) throws IOException {
+    if (postIds == null || postIds.isEmpty()) {
+      return;
+    }
+    Map<Long, PostEntity> posts = new HashMap<>();
+    for (PostEntity p : postMapper.selectIndexInputs(postIds)) {
+      posts.put(p.getId(), p);
+    }
+    for (Long id : postIds) {
+      PostEntity p = posts.get(id);
+      Term idTerm = new Term(FIELD_ID, String.valueOf(id));
+      if (p != null && isSearchable(p)) {
+        writer.updateDocument(idTerm, toDocument(p));
+      } else {
+        writer.deleteDocuments(idTerm);
+      }
+    }
+    searcherManager.maybeRefresh();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onStartup() {
+    if (rebuildOnStartup && writer.getDocStats().numDocs == 0) {
+      startRebuild();
+    }
+  }
+
+  /**
+   * 在后台线程全量重建索引；已有重建在运行时返回 false。
+   */
+  public boolean startRebuild() {
+    if (!rebuilding.compareAndSet(false, true)) {
+      return false;
+    }
+    Thread t = new Thread(() -> {
+      try {
+        long started = System.currentTimeMillis();
+        int indexed = rebuild();
+        log.info("Rebuilt search index: {} posts in {} ms", indexed, System.currentTimeMillis() - started);
+      } catch (Exception e) {
+        log.error("Error rebuilding search index", e);
+      } finally {
+        rebuilding.set(false);
+      }
+    }, "search-index-rebuild");
+    t.setDaemon(true);
+    t.start();
+    return true;
+  }
+
+  public boolean isRebuilding() {
+    return rebuilding.get();
+  }
+
+  public int numDocs() {
+    return writer.getDocStats().numDocs;
+  }
+
+  /**
+   * 按主键分批读取可见文章全量重建。commit 之前查询看到的是重建前的快照。
+   */
+  int rebuild() throws IOException {
+    int batch = Math.min(Math.max(rebuildBatchSize, 1), 5000);
+    writer.deleteAll();
+    long afterId = 0;
+    int indexed = 0;
+    while (true) {
+      List<PostEntity> posts = postMapper.listIndexInputs(afterId, batch);
+      for (PostEntity p : posts) {
+        afterId = p.getId();
+        writer.updateDocument(new Term(FIELD_ID, String.valueOf(p.getId())), toDocument(p));
+        indexed++;
+      }
+      if (posts.size() < batch) {
+        break;
+      }
+    }
+    writer.commit();
+    searcherManager.maybeRefresh();
+    return indexed;
+  }
+
+  @Scheduled(
+    fixedDelayString = "${app.search.lucene.commit-interval-ms:5000}",
+    initialDelayString = "${app.search.lucene.commit-interval-ms:5000}"
+  )
+  public void commit() {
+    // 重建过程中由重建线程统一 commit，避免把删空后的中间状态落盘
+    if (rebuilding.get()) {
+      return;
+    }
+    try {
+      if (writer.hasUncommittedChanges()) {
+        writer.commit();
+      }
+    } catch (IOException e) {
+      log.error("Error committing search index", e);
+    }
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    try {
+      searcherManager.close();
+      writer.close();
+    } finally {
+      directory.close();
+    }
+  }
+}
@@ -9,6 +9,9 @@ import org.springframework.stereotype.Component;
 
 @Component
 public class MarkdownRenderer {
+  // 修改解析/清洗规则时递增，ContentHtmlBackfillJob 会据此重新渲染已有文章
+  public static final int VERSION = 1;
+
   private final Parser parser;
   private final HtmlRenderer renderer;
   private final Safelist safelist;
@@ -0,0 +1,138 @@
+package com.eblog.post;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 基于 MySQL 的搜索：关键词走 FULLTEXT（ngram 解析器），标签走 post_tags。
+ *
+ * <p>关键词解析方式由 app.search.mysql.mode 决定：natural（自然语言，按词项 OR 匹配）、boolean
+ * （透传 +、-、"短语"、* 等运算符）、phrase（整个关键词作为一个短语匹配）。排序由 app.search.mysql.order
+ * 决定：time（置顶优先、按发布时间倒序，支持 keyset 游标）或 relevance（有关键词时按匹配得分排序，
+ * 用 offset 翻页）。
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "mysql", matchIfMissing = true)
+public class MysqlSearchIndex implements SearchIndex {
+
+  enum Mode {
+    NATURAL,
+    BOOLEAN,
+    PHRASE;
+
+    static Mode parse(String raw) {
+      if (raw != null) {
+        for (Mode m : values()) {
+          if (m.name().equalsIgnoreCase(raw.trim())) {
+            return m;
+          }
+        }
+      }
+      return NATURAL;
+    }
+  }
+
+  private final PostMapper postMapper;
+  private final Mode mode;
+  private final boolean orderByRelevance;
+
+  public MysqlSearchIndex(
+      PostMapper postMapper,
+      @Value("${app.search.mysql.mode:natural}") String mode,
+      @Value("${app.search.mysql.order:time}") String order) {
+    this.postMapper = postMapper;
+    this.mode = Mode.parse(mode);
+    this.orderByRelevance = "relevance".equalsIgnoreCase(order == null ? null : order.trim());
+  }
+
+  @Override
+  public List<PostEntity> search(SearchQuery query) {
+    String against = toAgainst(query.getQ(), mode);
+    boolean booleanMode = mode != Mode.NATURAL;
+    PostCursor cursor = query.getCursor();
+    if (cursor != null) {
+      boolean afterPinned = Boolean.TRUE.equals(cursor.getPinned());
+      return postMapper.searchAfter(against, booleanMode, query.getTag(), query.getAuthorId(), query.getPinned(),
+          afterPinned, cursor.getTime(), cursor.getId(), query.getLimit());
+    }
+    return postMapper.search(against, booleanMode, ranksByRelevance(query), query.getTag(), query.getAuthorId(),
+        query.getPinned(), query.getLimit(), query.getOffset());
+  }
+
+  @Override
+  public boolean ranksByRelevance(SearchQuery query) {
+    return orderByRelevance && query.getQ() != null && query.getCursor() == null;
+  }
+
+  /**
+   * 把用户关键词转换为 AGAINST 的参数。BOOLEAN MODE 下 InnoDB 对运算符语法要求严格，++foo、+-foo、
+   * 单独的 * 或 -、@、括号等畸形输入都会直接报语法错误，这里按词项重新规整：每个词项最多保留一个前导
+   * + 或 -，* 只作为词尾的前缀匹配，短语补齐引号，只剩运算符的词项直接丢弃。
+   */
+  static String toAgainst(String q, Mode mode) {
+    if (q == null) {
+      return null;
+    }
+    switch (mode) {
+      case PHRASE:
+        String phrase = stripOperators(q);
+        return phrase.isEmpty() ? "" : "\"" + phrase + "\"";
+      case BOOLEAN:
+        return toBooleanAgainst(q);
+      default:
+        return q;
+    }
+  }
+
+  private static String toBooleanAgainst(String q) {
+    List<String> terms = new ArrayList<>();
+    int n = q.length();
+    int i = 0;
+    while (i < n) {
+      if (Character.isWhitespace(q.charAt(i))) {
+        i++;
+        continue;
+      }
+      String op = "";
+      while (i < n && (q.charAt(i) == '+' || q.charAt(i) == '-')) {
+        if (op.isEmpty()) {
+          op = String.valueOf(q.charAt(i));
+        }
+        i++;
+      }
+      if (i < n && q.charAt(i) == '"') {
+        int end = q.indexOf('"', i + 1);
+        if (end < 0) {
+          end = n;
+        }
+        String phrase = stripOperators(q.substring(i + 1, end));
+        if (!phrase.isEmpty()) {
+          terms.add(op + "\"" + phrase + "\"");
+        }
+        i = Math.min(end + 1, n);
+        continue;
+      }
+      int start = i;
+      while (i < n && !Character.isWhitespace(q.charAt(i)) && q.charAt(i) != '"') {
+        i++;
+      }
+      String word = q.substring(start, i);
+      // 词中间的运算符按分隔符处理（spring-boot 视为 spring、boot 两个词项）
+      String[] parts = stripOperators(word).split(" ");
+      for (int k = 0; k < parts.length; k++) {
+        if (!parts[k].isEmpty()) {
+          boolean last = k == parts.length - 1;
+          terms.add(op + parts[k] + (last && word.endsWith("*") ? "*" : ""));
+        }
+      }
+    }
+    return String.join(" ", terms);
+  }
+
+  private static String stripOperators(String s) {
+    return s.replaceAll("[+\\-*@<>()~\"]+", " ").trim().replaceAll("\\s+", " ");
+  }
+}
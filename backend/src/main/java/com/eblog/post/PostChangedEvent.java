@@ -0,0 +1,19 @@
+package com.eblog.post;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 文章内容或可见性发生变化（编辑、归档、审核结论）。事务提交后由搜索索引等读模型按 ID 重新加载。
+ */
+public class PostChangedEvent {
+  private final List<Long> postIds;
+
+  public PostChangedEvent(Collection<Long> postIds) {
+    this.postIds = List.copyOf(postIds);
+  }
+
+  public List<Long> getPostIds() {
+    return postIds;
+  }
+}
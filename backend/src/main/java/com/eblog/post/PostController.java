@@ -2,14 +2,15 @@
 
 import com.eblog.api.common.ApiResponse;
 import com.eblog.api.common.ErrorCode;
-import com.eblog.user.UserMapper;
+import com.eblog.user.AuthorProfileResolver;
+import com.eblog.user.AuthorProfileResolver.AuthorProfile;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,29 +29,40 @@ import org.springframework.web.bind.annotation.RestController;
 public class PostController {
   private final PostService postService;
   private final MarkdownRenderer markdownRenderer;
-  private final UserMapper userMapper;
-  // 作者信息缓存（避免重复查询）
-  private final Map<Long, String> authorNicknameCache = new HashMap<>();
-  private final Map<Long, String> authorAvatarCache = new HashMap<>();
+  private final RenderedHtmlCache renderedHtmlCache;
+  private final AuthorProfileResolver authorProfileResolver;
 
-  public PostController(PostService postService, MarkdownRenderer markdownRenderer, UserMapper userMapper) {
+  public PostController(
+      PostService postService,
+      MarkdownRenderer markdownRenderer,
+      RenderedHtmlCache renderedHtmlCache,
+      AuthorProfileResolver authorProfileResolver) {
     this.postService = postService;
     this.markdownRenderer = markdownRenderer;
-    this.userMapper = userMapper;
+    this.renderedHtmlCache = renderedHtmlCache;
+    this.authorProfileResolver = authorProfileResolver;
   }
 
   @GetMapping
   public ApiResponse<List<PostSummary>> list(
       @RequestParam(name = "limit", required = false, defaultValue = "20") int limit,
-      @RequestParam(name = "offset", required = false, defaultValue = "0") int offset) {
-    List<PostEntity> posts = postService.listPublic(limit, offset);
+      @RequestParam(name = "offset", required = false, defaultValue = "0") int offset,
+      @RequestParam(name = "cursor", required = false) String cursor) {
+    PostCursor after = PostCursor.decode(cursor);
+    if (cursor != null && !cursor.trim().isEmpty() && after == null) {
+      return ApiResponse.fail(ErrorCode.BAD_REQUEST.getCode(), ErrorCode.BAD_REQUEST.getMessage());
+    }
+    List<PostEntity> posts = postService.listPublic(limit, offset, after);
+    Map<Long, AuthorProfile> authors = authorProfileResolver.resolve(
+        posts.stream().map(PostEntity::getAuthorId).collect(Collectors.toList()));
     List<PostSummary> res = new ArrayList<>();
     for (PostEntity p : posts) {
+      AuthorProfile author = authors.get(p.getAuthorId());
       PostSummary s = new PostSummary();
       s.id = p.getId();
       s.authorId = p.getAuthorId();
-      s.authorName = getAuthorNickname(p.getAuthorId());
-      s.authorAvatar = getAuthorAvatar(p.getAuthorId());
+      s.authorName = author != null ? author.getNickname() : null;
+      s.authorAvatar = author != null ? author.getAvatarUrl() : null;
       s.title = p.getTitle();
       s.slug = p.getSlug();
       s.summary = p.getSummary();
@@ -59,6 +71,10 @@ public class PostController {
       s.createdAt = p.getCreatedAt();
       s.status = p.getStatus();
       s.moderationStatus = p.getModerationStatus();
+      s.likeCount = p.getLikeCount();
+      s.favoriteCount = p.getFavoriteCount();
+      s.commentCount = p.getCommentCount();
+      s.cursor = PostCursor.encode(null, p.getCreatedAt(), p.getId());
       res.add(s);
     }
     return ApiResponse.ok(res);
@@ -67,12 +83,17 @@ public class PostController {
   @GetMapping("/my")
   public ApiResponse<List<MyPostSummary>> listMy(
       @RequestParam(name = "limit", required = false, defaultValue = "20") int limit,
-      @RequestParam(name = "offset", required = false, defaultValue = "0") int offset) {
+      @RequestParam(name = "offset", required = false, defaultValue = "0") int offset,
+      @RequestParam(name = "cursor", required = false) String cursor) {
     Long userId = currentUserId();
     if (userId == null) {
       return ApiResponse.fail(ErrorCode.UNAUTHORIZED.getCode(), ErrorCode.UNAUTHORIZED.getMessage());
     }
-    List<PostEntity> posts = postService.listMy(userId, limit, offset);
+    PostCursor after = PostCursor.decode(cursor);
+    if (cursor != null && !cursor.trim().isEmpty() && after == null) {
+      return ApiResponse.fail(ErrorCode.BAD_REQUEST.getCode(), ErrorCode.BAD_REQUEST.getMessage());
+    }
+    List<PostEntity> posts = postService.listMy(userId, limit, offset, after);
     List<MyPostSummary> res = new ArrayList<>();
     for (PostEntity p : posts) {
       MyPostSummary s = new MyPostSummary();
@@ -84,6 +105,7 @@ public class PostController {
       s.status = p.getStatus();
       s.createdAt = p.getCreatedAt();
       s.updatedAt = p.getUpdatedAt();
+      s.cursor = PostCursor.encode(null, p.getUpdatedAt(), p.getId());
       res.add(s);
     }
     return ApiResponse.ok(res);
@@ -105,11 +127,16 @@ public class PostController {
       }
     }
 
+    if (isPublic) {
+      postService.incrementViewCount(p.getId());
+    }
+
+    AuthorProfile author = authorProfileResolver.resolve(p.getAuthorId());
     PostDetail d = new PostDetail();
     d.id = p.getId();
     d.authorId = p.getAuthorId();
-    d.authorName = getAuthorNickname(p.getAuthorId());
-    d.authorAvatar = getAuthorAvatar(p.getAuthorId());
+    d.authorName = author.getNickname();
+    d.authorAvatar = author.getAvatarUrl();
     d.title = p.getTitle();
     d.slug = p.getSlug();
     d.summary = p.getSummary();
@@ -117,13 +144,19 @@ public class PostController {
     d.format = p.getFormat();
     if ("MDX".equalsIgnoreCase(p.getFormat())) {
       d.contentHtml = null;
+    } else if (p.getContentHtml() != null && Integer.valueOf(MarkdownRenderer.VERSION).equals(p.getContentHtmlVersion())) {
+      d.contentHtml = p.getContentHtml();
     } else {
-      d.contentHtml = markdownRenderer.renderToHtml(p.getContentMarkdown());
+      // 尚未回填或渲染器版本已变更的旧文章：读时渲染并缓存
+      d.contentHtml = renderedHtmlCache.get(p.getId(), p.getContentMarkdown(), markdownRenderer::renderToHtml);
     }
     d.tagsCsv = p.getTagsCsv();
     d.category = p.getCategory();
     d.createdAt = p.getCreatedAt();
     d.updatedAt = p.getUpdatedAt();
+    d.likeCount = p.getLikeCount();
+    d.favoriteCount = p.getFavoriteCount();
+    d.commentCount = p.getCommentCount();
     return ApiResponse.ok(d);
   }
 
@@ -177,30 +210,6 @@ public class PostController {
     }
   }
 
-  private String getAuthorNickname(Long authorId) {
-    if (authorId == null) {
-      return null;
-    }
-    if (!authorNicknameCache.containsKey(authorId)) {
-      var user = userMapper.selectById(authorId);
-      authorNicknameCache.put(authorId, user != null && user.getNickname() != null && !user.getNickname().trim().isEmpty()
-          ? user.getNickname().trim()
-          : "#" + authorId);
-    }
-    return authorNicknameCache.get(authorId);
-  }
-
-  private String getAuthorAvatar(Long authorId) {
-    if (authorId == null) {
-      return null;
-    }
-    if (!authorAvatarCache.containsKey(authorId)) {
-      var user = userMapper.selectById(authorId);
-      authorAvatarCache.put(authorId, user != null ? user.getAvatarUrl() : null);
-    }
-    return authorAvatarCache.get(authorId);
-  }
-
   private static boolean isAdmin() {
     Authentication auth = SecurityContextHolder.getContext().getAuthentication();
     if (auth == null || auth.getAuthorities() == null) {
@@ -256,6 +265,11 @@ public class PostController {
     public LocalDateTime createdAt;
     public String status;
     public String moderationStatus;
+    /** 传给下一页请求的 cursor 参数 */
+    public String cursor;
+    public Integer likeCount;
+    public Integer favoriteCount;
+    public Integer commentCount;
   }
 
   public static class MyPostSummary {
@@ -268,6 +282,8 @@ public class PostController {
     public String status;
     public LocalDateTime createdAt;
     public LocalDateTime updatedAt;
+    /** 传给下一页请求的 cursor 参数 */
+    public String cursor;
   }
 
   public static class PostDetail {
@@ -287,5 +303,8 @@ public class PostController {
     public String category;
     public LocalDateTime createdAt;
     public LocalDateTime updatedAt;
+    public Integer likeCount;
+    public Integer favoriteCount;
+    public Integer commentCount;
   }
 }
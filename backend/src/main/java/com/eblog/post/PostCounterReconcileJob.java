@@ -0,0 +1,66 @@
+package com.eblog.post;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 对账 posts 上的点赞/收藏/评论计数。
+ *
+ * <p>计数由业务代码增量维护，异常回滚、手工改库等情况可能产生偏差。
+ * 本任务按主键区间分批从 post_likes / post_favorites / comments 重算，只改写有偏差的行。
+ */
+@Component
+public class PostCounterReconcileJob {
+
+  private static final Logger log = LoggerFactory.getLogger(PostCounterReconcileJob.class);
+
+  private final PostMapper postMapper;
+
+  @Value("${app.posts.counter-reconcile.enabled:true}")
+  private boolean enabled = true;
+
+  @Value("${app.posts.counter-reconcile.batch-size:500}")
+  private int batchSize = 500;
+
+  public PostCounterReconcileJob(PostMapper postMapper) {
+    this.postMapper = postMapper;
+  }
+
+  @Scheduled(
+    fixedDelayString = "${app.posts.counter-reconcile.interval-ms:3600000}",
+    initialDelayString = "${app.posts.counter-reconcile.interval-ms:3600000}"
+  )
+  public void run() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      int repaired = reconcile();
+      if (repaired > 0) {
+        log.warn("Repaired interaction counters on {} posts", repaired);
+      }
+    } catch (Exception e) {
+      log.error("Error reconciling post counters", e);
+    }
+  }
+
+  /**
+   * 全表分批对账，返回被修正的文章数。
+   */
+  public int reconcile() {
+    int safeBatch = Math.min(Math.max(batchSize, 1), 5000);
+    long afterId = 0;
+    int repaired = 0;
+    while (true) {
+      Long toId = postMapper.selectBatchUpperId(afterId, safeBatch);
+      if (toId == null) {
+        return repaired;
+      }
+      repaired += postMapper.reconcileCounters(afterId, toId);
+      afterId = toId;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.eblog.post;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 列表分页游标（keyset / seek 分页）。
+ *
+ * <p>对客户端是不透明的 Base64 字符串，内部编码排序键：置顶标记（可选）、时间、ID。
+ * 下一页从游标位置之后继续扫描索引，深翻页代价与第一页相同。
+ */
+final class PostCursor {
+  private static final String SEP = "|";
+
+  private final Boolean pinned;
+  private final LocalDateTime time;
+  private final Long id;
+
+  PostCursor(Boolean pinned, LocalDateTime time, Long id) {
+    this.pinned = pinned;
+    this.time = time;
+    this.id = id;
+  }
+
+  Boolean getPinned() {
+    return pinned;
+  }
+
+  LocalDateTime getTime() {
+    return time;
+  }
+
+  Long getId() {
+    return id;
+  }
+
+  static String encode(Boolean pinned, LocalDateTime time, Long id) {
+    if (time == null || id == null) {
+      return null;
+    }
+    String flag = pinned == null ? "" : (pinned ? "1" : "0");
+    String raw = flag + SEP + time + SEP + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * 解析游标，格式不合法时返回 null。
+   */
+  static PostCursor decode(String cursor) {
+    if (cursor == null || cursor.trim().isEmpty()) {
+      return null;
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+      String[] parts = raw.split("\\|", -1);
+      if (parts.length != 3) {
+        return null;
+      }
+      Boolean pinned = parts[0].isEmpty() ? null : "1".equals(parts[0]);
+      return new PostCursor(pinned, LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+    } catch (RuntimeException ex) {
+      return null;
+    }
+  }
+}
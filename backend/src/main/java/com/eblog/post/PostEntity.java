@@ -1,5 +1,7 @@
 package com.eblog.post;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 import java.time.LocalDateTime;
 
@@ -12,13 +14,23 @@ public class PostEntity {
   private String slug;
   private String summary;
   private String contentMarkdown;
+  private String contentHtml;
+  private Integer contentHtmlVersion;
   private String tagsCsv;
   private String category;
   private String status;
   private String moderationStatus;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
+  // 计数列只通过增量 SQL 维护，updateById 不回写，避免覆盖并发累加的值
+  @TableField(updateStrategy = FieldStrategy.NEVER)
   private Integer viewCount;
+  @TableField(updateStrategy = FieldStrategy.NEVER)
+  private Integer likeCount;
+  @TableField(updateStrategy = FieldStrategy.NEVER)
+  private Integer favoriteCount;
+  @TableField(updateStrategy = FieldStrategy.NEVER)
+  private Integer commentCount;
   private Boolean isPinned;
   private Boolean isFeatured;
 
@@ -30,6 +42,30 @@ public class PostEntity {
     this.viewCount = viewCount;
   }
 
+  public Integer getLikeCount() {
+    return likeCount;
+  }
+
+  public void setLikeCount(Integer likeCount) {
+    this.likeCount = likeCount;
+  }
+
+  public Integer getFavoriteCount() {
+    return favoriteCount;
+  }
+
+  public void setFavoriteCount(Integer favoriteCount) {
+    this.favoriteCount = favoriteCount;
+  }
+
+  public Integer getCommentCount() {
+    return commentCount;
+  }
+
+  public void setCommentCount(Integer commentCount) {
+    this.commentCount = commentCount;
+  }
+
   public Boolean getIsPinned() {
     return isPinned;
   }
@@ -102,6 +138,22 @@ public class PostEntity {
     this.contentMarkdown = contentMarkdown;
   }
 
+  public String getContentHtml() {
+    return contentHtml;
+  }
+
+  public void setContentHtml(String contentHtml) {
+    this.contentHtml = contentHtml;
+  }
+
+  public Integer getContentHtmlVersion() {
+    return contentHtmlVersion;
+  }
+
+  public void setContentHtmlVersion(Integer contentHtmlVersion) {
+    this.contentHtmlVersion = contentHtmlVersion;
+  }
+
   public String getTagsCsv() {
     return tagsCsv;
   }
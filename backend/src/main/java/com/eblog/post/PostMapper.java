@@ -1,46 +1,234 @@
 package com.eblog.post;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 @Mapper
 public interface PostMapper extends BaseMapper<PostEntity> {
 
   @Select("""
-      SELECT id, author_id, format, title, slug, summary, tags_csv, category, status, moderation_status, created_at, updated_at, view_count, is_pinned, is_featured
+      SELECT id, author_id, format, title, slug, summary, tags_csv, category, status, moderation_status, created_at, updated_at, view_count, like_count, favorite_count, comment_count, is_pinned, is_featured
       FROM posts
       WHERE status = 'PUBLISHED'
         AND moderation_status = 'APPROVED'
-      ORDER BY created_at DESC
+      ORDER BY created_at DESC, id DESC
       LIMIT #{limit} OFFSET #{offset}
       """)
   List<PostEntity> listPublic(@Param("limit") int limit, @Param("offset") int offset);
 
   @Select("""
-      SELECT id, author_id, format, title, slug, summary, tags_csv, category, status, moderation_status, created_at, updated_at, view_count, is_pinned, is_featured
+      SELECT id, author_id, format, title, slug, summary, tags_csv, category, status, moderation_status, created_at, updated_at, view_count, like_count, favorite_count, comment_count, is_pinned, is_featured
+      FROM posts
+      WHERE status = 'PUBLISHED'
+        AND moderation_status = 'APPROVED'
+        AND (created_at < #{createdAt} OR (created_at = #{createdAt} AND id < #{id}))
+      ORDER BY created_at DESC, id DESC
+      LIMIT #{limit}
+      """)
+  List<PostEntity> listPublicAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") long id, @Param("limit") int limit);
+
+  @Select("""
+      SELECT id, author_id, format, title, slug, summary, tags_csv, category, status, moderation_status, created_at, updated_at, view_count, like_count, favorite_count, comment_count, is_pinned, is_featured
       FROM posts
       WHERE author_id = #{authorId}
-      ORDER BY updated_at DESC
+      ORDER BY updated_at DESC, id DESC
       LIMIT #{limit} OFFSET #{offset}
       """)
   List<PostEntity> listMy(@Param("authorId") long authorId, @Param("limit") int limit, @Param("offset") int offset);
 
+  @Select("""
+      SELECT id, author_id, format, title, slug, summary, tags_csv, category, status, moderation_status, created_at, updated_at, view_count, like_count, favorite_count, comment_count, is_pinned, is_featured
+      FROM posts
+      WHERE author_id = #{authorId}
+        AND (updated_at < #{updatedAt} OR (updated_at = #{updatedAt} AND id < #{id}))
+      ORDER BY updated_at DESC, id DESC
+      LIMIT #{limit}
+      """)
+  List<PostEntity> listMyAfter(@Param("authorId") long authorId, @Param("updatedAt") LocalDateTime updatedAt, @Param("id") long id, @Param("limit") int limit);
+
+  // 标签过滤按 tags.name 精确匹配，经 uk_tags_name 与 idx_post_tags_tag 走索引半连接。
+  // booleanMode 为 true 时关键词按 BOOLEAN MODE 解析（支持 +、-、"短语"）；
+  // byRelevance 为 true 且有关键词时按匹配得分排序，否则置顶优先、按发布时间倒序
   @Select("<script>" +
-      "SELECT id, author_id, format, title, slug, summary, tags_csv, category, status, moderation_status, created_at, updated_at, view_count, is_pinned, is_featured " +
+      "SELECT id, author_id, format, title, slug, summary, tags_csv, category, status, moderation_status, created_at, updated_at, view_count, like_count, favorite_count, comment_count, is_pinned, is_featured " +
       "FROM posts " +
       "WHERE status = 'PUBLISHED' AND moderation_status = 'APPROVED' " +
-      "<if test='q != null'> AND MATCH(title, summary, content_markdown) AGAINST(#{q} IN NATURAL LANGUAGE MODE) </if> " +
-      "<if test='tag != null'> AND tags_csv LIKE CONCAT('%', #{tag}, '%') </if> " +
+      "<if test='q != null'> AND MATCH(title, summary, content_markdown) AGAINST(#{q} IN ${booleanMode ? 'BOOLEAN' : 'NATURAL LANGUAGE'} MODE) </if> " +
+      "<if test='tag != null'> AND id IN (SELECT pt.post_id FROM post_tags pt JOIN tags t ON t.id = pt.tag_id WHERE t.name = #{tag}) </if> " +
       "<if test='authorId != null'> AND author_id = #{authorId} </if> " +
-      "ORDER BY is_pinned DESC, created_at DESC " +
+      "<if test='pinned != null'> AND is_pinned = #{pinned} </if> " +
+      "<choose>" +
+      "<when test='byRelevance and q != null'>ORDER BY MATCH(title, summary, content_markdown) AGAINST(#{q} IN ${booleanMode ? 'BOOLEAN' : 'NATURAL LANGUAGE'} MODE) DESC, id DESC </when>" +
+      "<otherwise>ORDER BY is_pinned DESC, created_at DESC, id DESC </otherwise>" +
+      "</choose>" +
       "LIMIT #{limit} OFFSET #{offset}" +
       "</script>")
-  List<PostEntity> search(@Param("q") String q, @Param("tag") String tag, @Param("authorId") Long authorId, @Param("limit") int limit, @Param("offset") int offset);
+  List<PostEntity> search(
+      @Param("q") String q,
+      @Param("booleanMode") boolean booleanMode,
+      @Param("byRelevance") boolean byRelevance,
+      @Param("tag") String tag,
+      @Param("authorId") Long authorId,
+      @Param("pinned") Boolean pinned,
+      @Param("limit") int limit,
+      @Param("offset") int offset);
+
+  @Select("<script>" +
+      "SELECT id, author_id, format, title, slug, summary, tags_csv, category, status, moderation_status, created_at, updated_at, view_count, like_count, favorite_count, comment_count, is_pinned, is_featured " +
+      "FROM posts " +
+      "WHERE status = 'PUBLISHED' AND moderation_status = 'APPROVED' " +
+      "<if test='q != null'> AND MATCH(title, summary, content_markdown) AGAINST(#{q} IN ${booleanMode ? 'BOOLEAN' : 'NATURAL LANGUAGE'} MODE) </if> " +
+      "<if test='tag != null'> AND id IN (SELECT pt.post_id FROM post_tags pt JOIN tags t ON t.id = pt.tag_id WHERE t.name = #{tag}) </if> " +
+      "<if test='authorId != null'> AND author_id = #{authorId} </if> " +
+      "<if test='pinned != null'> AND is_pinned = #{pinned} </if> " +
+      "AND (is_pinned &lt; #{afterPinned} OR (is_pinned = #{afterPinned} AND (created_at &lt; #{createdAt} OR (created_at = #{createdAt} AND id &lt; #{id})))) " +
+      "ORDER BY is_pinned DESC, created_at DESC, id DESC " +
+      "LIMIT #{limit}" +
+      "</script>")
+  List<PostEntity> searchAfter(
+      @Param("q") String q,
+      @Param("booleanMode") boolean booleanMode,
+      @Param("tag") String tag,
+      @Param("authorId") Long authorId,
+      @Param("pinned") Boolean pinned,
+      @Param("afterPinned") boolean afterPinned,
+      @Param("createdAt") LocalDateTime createdAt,
+      @Param("id") long id,
+      @Param("limit") int limit);
+
+  @Select("""
+      SELECT id, format, content_markdown, content_html_version
+      FROM posts
+      WHERE id > #{afterId}
+        AND content_html_version < #{version}
+      ORDER BY id ASC
+      LIMIT #{limit}
+      """)
+  List<PostEntity> listStaleContentHtml(@Param("afterId") long afterId, @Param("version") int version, @Param("limit") int limit);
+
+  // 仅在版本仍落后时写入，避免覆盖并发编辑刚生成的新内容
+  @Update("""
+      UPDATE posts
+      SET content_html = #{html}, content_html_version = #{version}, updated_at = updated_at
+      WHERE id = #{id}
+        AND content_html_version < #{version}
+      """)
+  int updateContentHtml(@Param("id") Long id, @Param("html") String html, @Param("version") int version);
+
+  // 批量写回浏览量增量：一条语句更新多行，updated_at 保持不变
+  @Update("<script>" +
+      "UPDATE posts SET view_count = COALESCE(view_count, 0) + CASE id " +
+      "<foreach collection='deltas' item='d'> WHEN #{d.postId} THEN #{d.delta} </foreach> " +
+      "END, updated_at = updated_at " +
+      "WHERE id IN " +
+      "<foreach collection='deltas' item='d' open='(' separator=',' close=')'>#{d.postId}</foreach>" +
+      "</script>")
+  int addViewCounts(@Param("deltas") List<ViewCountBuffer.ViewDelta> deltas);
+
+  // Lucene 搜索索引的数据源：只取建索引与可见性判断需要的列
+  @Select("<script>" +
+      "SELECT id, author_id, title, summary, content_markdown, tags_csv, status, moderation_status, is_pinned FROM posts WHERE id IN " +
+      "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+      "</script>")
+  List<PostEntity> selectIndexInputs(@Param("ids") Collection<Long> ids);
 
-  @Update("UPDATE posts SET view_count = COALESCE(view_count, 0) + 1 WHERE id = #{id}")
-  void incrementViewCount(@Param("id") Long id);
+  @Select("""
+      SELECT id, author_id, title, summary, content_markdown, tags_csv, is_pinned
+      FROM posts
+      WHERE id > #{afterId}
+        AND status = 'PUBLISHED'
+        AND moderation_status = 'APPROVED'
+      ORDER BY id ASC
+      LIMIT #{limit}
+      """)
+  List<PostEntity> listIndexInputs(@Param("afterId") long afterId, @Param("limit") int limit);
+
+  // 按 Lucene 索引给出的 ID 取列表字段，并再次过滤可见性，防止索引滞后时返回已下线的文章
+  @Select("<script>" +
+      "SELECT id, author_id, format, title, slug, summary, tags_csv, category, status, moderation_status, created_at, updated_at, view_count, like_count, favorite_count, comment_count, is_pinned, is_featured " +
+      "FROM posts WHERE status = 'PUBLISHED' AND moderation_status = 'APPROVED' AND id IN " +
+      "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+      "</script>")
+  List<PostEntity> selectPublicByIds(@Param("ids") Collection<Long> ids);
+
+  // 标签/分类计数全量重算：流式读取（MySQL 需 fetchSize = Integer.MIN_VALUE），只取计数需要的两列
+  @Select("""
+      SELECT tags_csv, category
+      FROM posts
+      WHERE status = 'PUBLISHED'
+        AND moderation_status = 'APPROVED'
+      """)
+  @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+  Cursor<PostEntity> streamCountedMetadata();
+
+  // 审核 worker 批量加载：只取规则评估与计数维护需要的列
+  @Select("<script>" +
+      "SELECT id, title, content_markdown, status, moderation_status, category FROM posts WHERE id IN " +
+      "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+      "</script>")
+  List<PostEntity> selectModerationInputs(@Param("ids") Collection<Long> ids);
+
+  // 审核 worker 批量写回：同一结论的文章合并为一条语句
+  @Update("<script>" +
+      "UPDATE posts SET moderation_status = #{status}, updated_at = NOW() WHERE id IN " +
+      "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+      "</script>")
+  int updateModerationStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+  // 计数列增量维护：GREATEST 防止并发删除导致负数，updated_at 保持不变
+  @Update("UPDATE posts SET like_count = GREATEST(like_count + #{delta}, 0), updated_at = updated_at WHERE id = #{id}")
+  int adjustLikeCount(@Param("id") Long id, @Param("delta") int delta);
+
+  @Update("UPDATE posts SET favorite_count = GREATEST(favorite_count + #{delta}, 0), updated_at = updated_at WHERE id = #{id}")
+  int adjustFavoriteCount(@Param("id") Long id, @Param("delta") int delta);
+
+  @Update("UPDATE posts SET comment_count = GREATEST(comment_count + #{delta}, 0), updated_at = updated_at WHERE id = #{id}")
+  int adjustCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+  @Select("SELECT like_count FROM posts WHERE id = #{id}")
+  Integer selectLikeCount(@Param("id") Long id);
+
+  @Select("""
+      SELECT MAX(id) FROM (
+        SELECT id FROM posts WHERE id > #{afterId} ORDER BY id ASC LIMIT #{limit}
+      ) t
+      """)
+  Long selectBatchUpperId(@Param("afterId") long afterId, @Param("limit") int limit);
+
+  // 从明细表重算 (afterId, toId] 区间内文章的计数，只改有偏差的行
+  @Update("""
+      UPDATE posts p
+      LEFT JOIN (
+        SELECT post_id, COUNT(*) AS n FROM post_likes
+        WHERE post_id > #{afterId} AND post_id <= #{toId} GROUP BY post_id
+      ) l ON l.post_id = p.id
+      LEFT JOIN (
+        SELECT post_id, COUNT(*) AS n FROM post_favorites
+        WHERE post_id > #{afterId} AND post_id <= #{toId} GROUP BY post_id
+      ) f ON f.post_id = p.id
+      LEFT JOIN (
+        SELECT post_id, COUNT(*) AS n FROM comments
+        WHERE post_id > #{afterId} AND post_id <= #{toId}
+          AND status = 'PUBLISHED' AND moderation_status <> 'REJECTED'
+        GROUP BY post_id
+      ) c ON c.post_id = p.id
+      SET p.like_count = COALESCE(l.n, 0),
+          p.favorite_count = COALESCE(f.n, 0),
+          p.comment_count = COALESCE(c.n, 0),
+          p.updated_at = p.updated_at
+      WHERE p.id > #{afterId} AND p.id <= #{toId}
+        AND (p.like_count <> COALESCE(l.n, 0)
+          OR p.favorite_count <> COALESCE(f.n, 0)
+          OR p.comment_count <> COALESCE(c.n, 0))
+      """)
+  int reconcileCounters(@Param("afterId") long afterId, @Param("toId") long toId);
 }
@@ -2,11 +2,13 @@ package com.eblog.post;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.eblog.api.common.ErrorCode;
+import com.eblog.metadata.MetadataCountService;
 import com.eblog.moderation.OutboxService;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,20 +19,63 @@ import org.springframework.transaction.annotation.Transactional;
 public class PostService {
   private final PostMapper postMapper;
   private final OutboxService outboxService;
-
-  public PostService(PostMapper postMapper, Optional<OutboxService> outboxService) {
+  private final MarkdownRenderer markdownRenderer;
+  private final RenderedHtmlCache renderedHtmlCache;
+  private final ViewCountBuffer viewCountBuffer;
+  private final PostTagService postTagService;
+  private final MetadataCountService metadataCountService;
+  private final SearchIndex searchIndex;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public PostService(
+      PostMapper postMapper,
+      Optional<OutboxService> outboxService,
+      MarkdownRenderer markdownRenderer,
+      RenderedHtmlCache renderedHtmlCache,
+      ViewCountBuffer viewCountBuffer,
+      PostTagService postTagService,
+      MetadataCountService metadataCountService,
+      SearchIndex searchIndex,
+      ApplicationEventPublisher eventPublisher) {
     this.postMapper = postMapper;
     this.outboxService = outboxService.orElse(null);
+    this.markdownRenderer = markdownRenderer;
+    this.renderedHtmlCache = renderedHtmlCache;
+    this.viewCountBuffer = viewCountBuffer;
+    this.postTagService = postTagService;
+    this.metadataCountService = metadataCountService;
+    this.searchIndex = searchIndex;
+    this.eventPublisher = eventPublisher;
   }
 
   public List<PostEntity> listPublic(int limit, int offset) {
+    return listPublic(limit, offset, null);
+  }
+
+  /**
+   * 公开文章列表。传入游标时按 (created_at, id) 向后定位，忽略 offset。
+   */
+  public List<PostEntity> listPublic(int limit, int offset, PostCursor cursor) {
     int safeLimit = Math.min(Math.max(limit, 1), 50);
+    if (cursor != null) {
+      return postMapper.listPublicAfter(cursor.getTime(), cursor.getId(), safeLimit);
+    }
     int safeOffset = Math.max(offset, 0);
     return postMapper.listPublic(safeLimit, safeOffset);
   }
 
   public List<PostEntity> listMy(long authorId, int limit, int offset) {
+    return listMy(authorId, limit, offset, null);
+  }
+
+  /**
+   * 我的文章列表。传入游标时按 (updated_at, id) 向后定位，忽略 offset。
+   */
+  public List<PostEntity> listMy(long authorId, int limit, int offset, PostCursor cursor) {
     int safeLimit = Math.min(Math.max(limit, 1), 100);
+    if (cursor != null) {
+      return postMapper.listMyAfter(authorId, cursor.getTime(), cursor.getId(), safeLimit);
+    }
     int safeOffset = Math.max(offset, 0);
     return postMapper.listMy(authorId, safeLimit, safeOffset);
   }
@@ -64,6 +109,7 @@ public class PostService {
     entity.setSlug(SlugGenerator.randomSlug());
     entity.setSummary(summary == null ? null : summary.trim());
     entity.setContentMarkdown(contentMarkdown);
+    renderContentHtml(entity);
     entity.setTagsCsv(tagsCsv == null ? null : tagsCsv.trim());
     entity.setCategory(category == null ? null : category.trim());
     entity.setStatus(normalizeStatus(status));
@@ -71,6 +117,9 @@ public class PostService {
     entity.setCreatedAt(LocalDateTime.now(ZoneOffset.UTC));
     entity.setUpdatedAt(LocalDateTime.now(ZoneOffset.UTC));
     postMapper.insert(entity);
+    if (entity.getTagsCsv() != null && !entity.getTagsCsv().isEmpty()) {
+      postTagService.replaceTags(entity.getId(), entity.getTagsCsv());
+    }
 
     if ("PUBLISHED".equals(normalizeStatus(status)) && outboxService != null) {
       String deduplicationKey = "v-" + entity.getUpdatedAt().atZone(ZoneOffset.UTC).toEpochSecond();
@@ -98,6 +147,9 @@ public class PostService {
       return ErrorCode.FORBIDDEN;
     }
 
+    String oldCategory = existing.getCategory();
+    boolean wasCounted = MetadataCountService.isCounted(existing.getStatus(), existing.getModerationStatus());
+
     if (!isBlank(title)) {
       existing.setTitle(title.trim());
     }
@@ -106,6 +158,7 @@ public class PostService {
     }
     if (!isBlank(contentMarkdown)) {
       existing.setContentMarkdown(contentMarkdown);
+      renderContentHtml(existing);
     }
     if (tagsCsv != null) {
       existing.setTagsCsv(tagsCsv.trim());
@@ -120,6 +173,20 @@ public class PostService {
     String newStatus = existing.getStatus();
     existing.setUpdatedAt(LocalDateTime.now(ZoneOffset.UTC));
     postMapper.updateById(existing);
+    renderedHtmlCache.invalidate(postId);
+
+    // 编辑不会让文章进入计数口径（重新发布需先审核），只可能离开或保持
+    boolean counted = MetadataCountService.isCounted(newStatus, existing.getModerationStatus());
+    if (wasCounted && !counted) {
+      metadataCountService.postLeft(postId, oldCategory);
+    }
+    PostTagService.Diff tagDiff = tagsCsv != null ? postTagService.replaceTags(postId, existing.getTagsCsv()) : null;
+    if (wasCounted && counted) {
+      if (tagDiff != null) {
+        metadataCountService.tagsChanged(tagDiff.getAdded(), tagDiff.getRemoved());
+      }
+      metadataCountService.categoryChanged(oldCategory, existing.getCategory());
+    }
 
     if (! "PUBLISHED".equals(oldStatus) && "PUBLISHED".equals(newStatus) && outboxService != null) {
       String deduplicationKey = "v-" + existing.getUpdatedAt().atZone(ZoneOffset.UTC).toEpochSecond();
@@ -127,6 +194,7 @@ public class PostService {
       existing.setModerationStatus("PENDING");
       postMapper.updateById(existing);
     }
+    eventPublisher.publishEvent(new PostChangedEvent(List.of(postId)));
     return null;
   }
 
@@ -157,8 +225,10 @@ public class PostService {
       return ErrorCode.FORBIDDEN;
     }
     existing.setFormat(normalizedFormat);
+    renderContentHtml(existing);
     existing.setUpdatedAt(LocalDateTime.now(ZoneOffset.UTC));
     postMapper.updateById(existing);
+    renderedHtmlCache.invalidate(postId);
     return null;
   }
 
@@ -178,22 +248,64 @@ public class PostService {
     if (!canEdit(existing, userId)) {
       return ErrorCode.FORBIDDEN;
     }
+    boolean wasCounted = MetadataCountService.isCounted(existing.getStatus(), existing.getModerationStatus());
     existing.setStatus("ARCHIVED");
     existing.setUpdatedAt(LocalDateTime.now(ZoneOffset.UTC));
     postMapper.updateById(existing);
+    renderedHtmlCache.invalidate(postId);
+    if (wasCounted) {
+      metadataCountService.postLeft(postId, existing.getCategory());
+    }
+    eventPublisher.publishEvent(new PostChangedEvent(List.of(postId)));
     return null;
   }
 
   public List<PostEntity> search(String q, String tag, Long authorId, int limit, int offset) {
+    return search(q, tag, authorId, null, limit, offset, null);
+  }
+
+  public List<PostEntity> search(String q, String tag, Long authorId, int limit, int offset, PostCursor cursor) {
+    return search(q, tag, authorId, null, limit, offset, cursor);
+  }
+
+  /**
+   * 搜索，由 {@link SearchIndex} 执行。默认置顶优先、按时间倒序，传入游标时按 (is_pinned, created_at, id)
+   * 向后定位并忽略 offset；lucene 引擎或 app.search.mysql.order=relevance 时关键词查询按相关度排序，
+   * 见 {@link #ranksByRelevance}。
+   */
+  public List<PostEntity> search(String q, String tag, Long authorId, Boolean pinned, int limit, int offset, PostCursor cursor) {
+    return searchIndex.search(toSearchQuery(q, tag, authorId, pinned, limit, offset, cursor));
+  }
+
+  /**
+   * 该搜索是否按相关度排序。是则结果不提供游标，调用方按 offset 翻页。
+   */
+  public boolean ranksByRelevance(String q, PostCursor cursor) {
+    return searchIndex.ranksByRelevance(toSearchQuery(q, null, null, null, 1, 0, cursor));
+  }
+
+  private static SearchQuery toSearchQuery(String q, String tag, Long authorId, Boolean pinned, int limit, int offset, PostCursor cursor) {
     int safeLimit = Math.min(Math.max(limit, 1), 50);
     int safeOffset = Math.max(offset, 0);
-    return postMapper.search(isBlank(q) ? null : q.trim(), isBlank(tag) ? null : tag.trim(), authorId, safeLimit, safeOffset);
+    String safeQ = isBlank(q) ? null : q.trim();
+    return new SearchQuery(safeQ, TagParser.normalize(tag), authorId, pinned, safeLimit, safeOffset, cursor);
   }
 
+  /**
+   * 记录一次浏览，由 ViewCountBuffer 异步批量写回。
+   */
   public void incrementViewCount(Long postId) {
-    if (postId != null) {
-      postMapper.incrementViewCount(postId);
+    viewCountBuffer.record(postId);
+  }
+
+  private void renderContentHtml(PostEntity post) {
+    // MDX 由前端渲染，不落库 HTML
+    if ("MDX".equalsIgnoreCase(post.getFormat())) {
+      post.setContentHtml(null);
+    } else {
+      post.setContentHtml(markdownRenderer.renderToHtml(post.getContentMarkdown()));
     }
+    post.setContentHtmlVersion(MarkdownRenderer.VERSION);
   }
 
   private static boolean canEdit(PostEntity post, Long userId) {
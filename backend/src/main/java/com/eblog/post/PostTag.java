@@ -0,0 +1,33 @@
+package com.eblog.post;
+
+/**
+ * post_tags 中的一行。
+ */
+public class PostTag {
+  private Long postId;
+  private Long tagId;
+
+  public PostTag() {
+  }
+
+  public PostTag(Long postId, Long tagId) {
+    this.postId = postId;
+    this.tagId = tagId;
+  }
+
+  public Long getPostId() {
+    return postId;
+  }
+
+  public void setPostId(Long postId) {
+    this.postId = postId;
+  }
+
+  public Long getTagId() {
+    return tagId;
+  }
+
+  public void setTagId(Long tagId) {
+    this.tagId = tagId;
+  }
+}
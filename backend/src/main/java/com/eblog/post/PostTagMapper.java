@@ -0,0 +1,34 @@
+package com.eblog.post;
+
+import java.util.Collection;
+import java.util.List;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+@Mapper
+public interface PostTagMapper {
+
+  @Select("SELECT tag_id FROM post_tags WHERE post_id = #{postId}")
+  List<Long> selectTagIds(@Param("postId") Long postId);
+
+  @Select("<script>" +
+      "SELECT post_id, tag_id FROM post_tags WHERE post_id IN " +
+      "<foreach collection='postIds' item='postId' open='(' separator=',' close=')'>#{postId}</foreach>" +
+      "</script>")
+  List<PostTag> selectByPostIds(@Param("postIds") Collection<Long> postIds);
+
+  @Insert("<script>" +
+      "INSERT IGNORE INTO post_tags (post_id, tag_id) VALUES " +
+      "<foreach collection='tagIds' item='tagId' separator=','>(#{postId}, #{tagId})</foreach>" +
+      "</script>")
+  int insertBatch(@Param("postId") Long postId, @Param("tagIds") Collection<Long> tagIds);
+
+  @Delete("<script>" +
+      "DELETE FROM post_tags WHERE post_id = #{postId} AND tag_id IN " +
+      "<foreach collection='tagIds' item='tagId' open='(' separator=',' close=')'>#{tagId}</foreach>" +
+      "</script>")
+  int deleteBatch(@Param("postId") Long postId, @Param("tagIds") Collection<Long> tagIds);
+}
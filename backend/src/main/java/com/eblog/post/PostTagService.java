@@ -0,0 +1,118 @@
+package com.eblog.post;
+
+import com.eblog.metadata.SlugGenerator;
+import com.eblog.metadata.TagEntity;
+import com.eblog.metadata.TagMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.stereotype.Service;
+
+/**
+ * 维护 post_tags 关联。标签按 {@link TagParser#parseTags} 规范化，tags 表中不存在的标签自动创建。
+ *
+ * <p>由 PostService 在写文章的事务内调用；只增删有变化的关联行。
+ */
+@Service
+public class PostTagService {
+  private final PostTagMapper postTagMapper;
+  private final TagMapper tagMapper;
+
+  public PostTagService(PostTagMapper postTagMapper, TagMapper tagMapper) {
+    this.postTagMapper = postTagMapper;
+    this.tagMapper = tagMapper;
+  }
+
+  /**
+   * 将文章的标签关联同步为 tagsCsv 所列标签，返回增删的标签 ID。
+   */
+  public Diff replaceTags(Long postId, String tagsCsv) {
+    Set<Long> target = new LinkedHashSet<>(resolveTagIds(TagParser.parseTags(tagsCsv)));
+    Set<Long> current = new LinkedHashSet<>(postTagMapper.selectTagIds(postId));
+
+    List<Long> removed = new ArrayList<>();
+    for (Long id : current) {
+      if (!target.contains(id)) {
+        removed.add(id);
+      }
+    }
+    target.removeAll(current);
+    if (!removed.isEmpty()) {
+      postTagMapper.deleteBatch(postId, removed);
+    }
+    if (!target.isEmpty()) {
+      postTagMapper.insertBatch(postId, target);
+    }
+    return new Diff(new ArrayList<>(target), removed);
+  }
+
+  /**
+   * 按名称取标签 ID（保持入参顺序），缺失的先插入。slug 冲突时退回随机 slug。
+   *
+   * <p>插入后逐个用 SQL = 回查：tags.name 的排序规则忽略重音与全半角，与已有标签仅在该规则下相同的名称
+   * 不会插入新行，Java 字符串精确匹配找不到它。
+   */
+  List<Long> resolveTagIds(List<String> names) {
+    if (names.isEmpty()) {
+      return new ArrayList<>();
+    }
+    Map<String, Long> ids = lookup(names);
+    List<String> missing = new ArrayList<>();
+    for (String name : names) {
+      if (!ids.containsKey(name)) {
+        missing.add(name);
+      }
+    }
+    if (!missing.isEmpty()) {
+      for (String name : missing) {
+        if (tagMapper.insertIgnore(name, SlugGenerator.slugify(name)) == 0) {
+          tagMapper.insertIgnore(name, SlugGenerator.randomSlug());
+        }
+      }
+      for (String name : missing) {
+        Long id = tagMapper.selectIdByName(name);
+        if (id != null) {
+          ids.put(name, id);
+        }
+      }
+    }
+    List<Long> res = new ArrayList<>();
+    for (String name : names) {
+      Long id = ids.get(name);
+      if (id != null) {
+        res.add(id);
+      }
+    }
+    return res;
+  }
+
+  private Map<String, Long> lookup(Collection<String> names) {
+    Map<String, Long> res = new HashMap<>();
+    for (TagEntity t : tagMapper.selectByNames(names)) {
+      res.put(t.getName(), t.getId());
+    }
+    return res;
+  }
+
+  public static final class Diff {
+    private final List<Long> added;
+    private final List<Long> removed;
+
+    Diff(List<Long> added, List<Long> removed) {
+      this.added = added;
+      this.removed = removed;
+    }
+
+    public List<Long> getAdded() {
+      return added;
+    }
+
+    public List<Long> getRemoved() {
+      return removed;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.eblog.post;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文章详情页渲染结果缓存。
+ *
+ * <p>按文章 ID 缓存 Markdown 渲染 + 清洗后的 HTML，条目携带原文指纹（长度 + hashCode），
+ * 原文变化时自然失效；容量按 HTML 字符数计，超出后按 LRU 淘汰。
+ */
+@Component
+public class RenderedHtmlCache {
+  private final long maxChars;
+  private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private long totalChars;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  public RenderedHtmlCache(@Value("${app.posts.html-cache.max-chars:8388608}") long maxChars) {
+    this.maxChars = Math.max(maxChars, 0);
+  }
+
+  public String get(Long postId, String markdown, Function<String, String> renderer) {
+    if (postId == null || markdown == null) {
+      return renderer.apply(markdown);
+    }
+    long fingerprint = fingerprint(markdown);
+    synchronized (this) {
+      Entry e = entries.get(postId);
+      if (e != null && e.fingerprint == fingerprint) {
+        hits++;
+        return e.html;
+      }
+      misses++;
+    }
+
+    // 渲染放在锁外，避免大文章阻塞其他读请求
+    String html = renderer.apply(markdown);
+    put(postId, fingerprint, html);
+    return html;
+  }
+
+  public synchronized void invalidate(Long postId) {
+    if (postId == null) {
+      return;
+    }
+    Entry removed = entries.remove(postId);
+    if (removed != null) {
+      totalChars -= removed.html.length();
+    }
+  }
+
+  public synchronized Stats stats() {
+    Stats s = new Stats();
+    s.entries = entries.size();
+    s.totalChars = totalChars;
+    s.maxChars = maxChars;
+    s.hits = hits;
+    s.misses = misses;
+    s.evictions = evictions;
+    return s;
+  }
+
+  private synchronized void put(Long postId, long fingerprint, String html) {
+    if (html == null || html.length() > maxChars) {
+      return;
+    }
+    Entry previous = entries.put(postId, new Entry(fingerprint, html));
+    if (previous != null) {
+      totalChars -= previous.html.length();
+    }
+    totalChars += html.length();
+
+    Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+    while (totalChars > maxChars && it.hasNext()) {
+      Map.Entry<Long, Entry> eldest = it.next();
+      if (eldest.getKey().equals(postId)) {
+        continue;
+      }
+      totalChars -= eldest.getValue().html.length();
+      it.remove();
+      evictions++;
+    }
+  }
+
+  private static long fingerprint(String markdown) {
+    return ((long) markdown.length() << 32) | (markdown.hashCode() & 0xffffffffL);
+  }
+
+  private static final class Entry {
+    private final long fingerprint;
+    private final String html;
+
+    private Entry(long fingerprint, String html) {
+      this.fingerprint = fingerprint;
+      this.html = html;
+    }
+  }
+
+  public static class Stats {
+    public int entries;
+    public long totalChars;
+    public long maxChars;
+    public long hits;
+    public long misses;
+    public long evictions;
+  }
+}
@@ -1,7 +1,16 @@
 package com.eblog.post;
 
 import com.eblog.api.common.ApiResponse;
+import com.eblog.api.common.ErrorCode;
+import com.eblog.user.AuthorProfileResolver;
+import com.eblog.user.AuthorProfileResolver.AuthorProfile;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -11,19 +20,79 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/search")
 public class SearchController {
   private final PostService postService;
+  private final AuthorProfileResolver authorProfileResolver;
 
-  public SearchController(PostService postService) {
+  public SearchController(PostService postService, AuthorProfileResolver authorProfileResolver) {
     this.postService = postService;
+    this.authorProfileResolver = authorProfileResolver;
   }
 
   @GetMapping
-  public ApiResponse<List<PostEntity>> search(
+  public ApiResponse<List<SearchResult>> search(
       @RequestParam(required = false) String q,
       @RequestParam(required = false) String tag,
       @RequestParam(required = false) Long authorId,
+      @RequestParam(required = false) Boolean pinned,
       @RequestParam(defaultValue = "20") int limit,
-      @RequestParam(defaultValue = "0") int offset) {
-    List<PostEntity> results = postService.search(q, tag, authorId, limit, offset);
-    return ApiResponse.ok(results);
+      @RequestParam(defaultValue = "0") int offset,
+      @RequestParam(required = false) String cursor) {
+    PostCursor after = PostCursor.decode(cursor);
+    if (cursor != null && !cursor.trim().isEmpty() && after == null) {
+      return ApiResponse.fail(ErrorCode.BAD_REQUEST.getCode(), ErrorCode.BAD_REQUEST.getMessage());
+    }
+    List<PostEntity> posts = postService.search(q, tag, authorId, pinned, limit, offset, after);
+    // 按相关度排序的结果没有可续接的 keyset 位置，客户端改用 offset 翻页
+    boolean relevance = postService.ranksByRelevance(q, after);
+    Map<Long, AuthorProfile> authors = authorProfileResolver.resolve(
+        posts.stream().map(PostEntity::getAuthorId).collect(Collectors.toList()));
+    List<SearchResult> res = new ArrayList<>();
+    for (PostEntity p : posts) {
+      AuthorProfile author = authors.get(p.getAuthorId());
+      SearchResult r = new SearchResult();
+      r.id = p.getId();
+      r.authorId = p.getAuthorId();
+      r.authorName = author != null ? author.getNickname() : null;
+      r.authorAvatar = author != null ? author.getAvatarUrl() : null;
+      r.title = p.getTitle();
+      r.slug = p.getSlug();
+      r.summary = p.getSummary();
+      r.tagsCsv = p.getTagsCsv();
+      r.tags = TagParser.parseTags(p.getTagsCsv());
+      r.category = p.getCategory();
+      r.isPinned = p.getIsPinned();
+      r.isFeatured = p.getIsFeatured();
+      r.viewCount = p.getViewCount();
+      r.likeCount = p.getLikeCount();
+      r.favoriteCount = p.getFavoriteCount();
+      r.commentCount = p.getCommentCount();
+      r.createdAt = p.getCreatedAt();
+      r.cursor = relevance ? null : PostCursor.encode(Boolean.TRUE.equals(p.getIsPinned()), p.getCreatedAt(), p.getId());
+      res.add(r);
+    }
+    return ApiResponse.ok(res);
+  }
+
+  public static class SearchResult {
+    @JsonSerialize(using = ToStringSerializer.class)
+    public Long id;
+    @JsonSerialize(using = ToStringSerializer.class)
+    public Long authorId;
+    public String authorName;
+    public String authorAvatar;
+    public String title;
+    public String slug;
+    public String summary;
+    public String tagsCsv;
+    public List<String> tags;
+    public String category;
+    public Boolean isPinned;
+    public Boolean isFeatured;
+    public Integer viewCount;
+    public LocalDateTime createdAt;
+    /** 传给下一页请求的 cursor 参数；按相关度排序时为 null */
+    public String cursor;
+    public Integer likeCount;
+    public Integer favoriteCount;
+    public Integer commentCount;
   }
 }
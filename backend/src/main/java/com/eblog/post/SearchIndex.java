@@ -0,0 +1,19 @@
+package com.eblog.post;
+
+import java.util.List;
+
+/**
+ * 文章搜索实现，由 app.search.engine 选择：mysql（FULLTEXT + post_tags，默认）或 lucene（本地倒排索引）。
+ */
+public interface SearchIndex {
+
+  /**
+   * 返回已发布且审核通过的文章（列表字段，不含正文）。
+   */
+  List<PostEntity> search(SearchQuery query);
+
+  /**
+   * 该查询的结果是否按相关度排序。相关度排序的结果不提供 keyset 游标，翻页使用 offset。
+   */
+  boolean ranksByRelevance(SearchQuery query);
+}
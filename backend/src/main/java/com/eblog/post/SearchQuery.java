@@ -0,0 +1,53 @@
+package com.eblog.post;
+
+/**
+ * 一次文章搜索的条件。q、tag 已规范化，limit、offset 已限定在合法范围内。
+ */
+public final class SearchQuery {
+  private final String q;
+  private final String tag;
+  private final Long authorId;
+  private final Boolean pinned;
+  private final int limit;
+  private final int offset;
+  private final PostCursor cursor;
+
+  SearchQuery(String q, String tag, Long authorId, Boolean pinned, int limit, int offset, PostCursor cursor) {
+    this.q = q;
+    this.tag = tag;
+    this.authorId = authorId;
+    this.pinned = pinned;
+    this.limit = limit;
+    this.offset = offset;
+    this.cursor = cursor;
+  }
+
+  public String getQ() {
+    return q;
+  }
+
+  public String getTag() {
+    return tag;
+  }
+
+  public Long getAuthorId() {
+    return authorId;
+  }
+
+  /** 只要置顶（true）或只要非置顶（false），null 表示不限 */
+  public Boolean getPinned() {
+    return pinned;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public int getOffset() {
+    return offset;
+  }
+
+  PostCursor getCursor() {
+    return cursor;
+  }
+}
@@ -11,10 +11,13 @@ import com.eblog.metadata.CategoryService;
 import com.eblog.metadata.TagEntity;
 import com.eblog.metadata.TagMapper;
 import com.eblog.metadata.TagService;
+import com.eblog.user.AuthorProfileResolver;
+import com.eblog.user.AuthorProfileResolver.AuthorProfile;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -39,18 +42,21 @@ public class TagController {
   private final CategoryMapper categoryMapper;
   private final CategoryService categoryService;
   private final TagService tagService;
+  private final AuthorProfileResolver authorProfileResolver;
 
   public TagController(
       PostService postService,
       TagMapper tagMapper,
       CategoryMapper categoryMapper,
       CategoryService categoryService,
-      TagService tagService) {
+      TagService tagService,
+      AuthorProfileResolver authorProfileResolver) {
     this.postService = postService;
     this.tagMapper = tagMapper;
     this.categoryMapper = categoryMapper;
     this.categoryService = categoryService;
     this.tagService = tagService;
+    this.authorProfileResolver = authorProfileResolver;
   }
 
   @GetMapping("/tags")
@@ -95,27 +101,38 @@ public class TagController {
   public ApiResponse<List<PostSummaryView>> listByTag(
       @PathVariable("tag") String tag,
       @RequestParam(name = "limit", required = false, defaultValue = "20") int limit,
-      @RequestParam(name = "offset", required = false, defaultValue = "0") int offset) {
+      @RequestParam(name = "offset", required = false, defaultValue = "0") int offset,
+      @RequestParam(name = "cursor", required = false) String cursor) {
     String normalized = TagParser.normalize(tag);
-    if (normalized == null) {
+    PostCursor after = PostCursor.decode(cursor);
+    if (normalized == null || (cursor != null && !cursor.trim().isEmpty() && after == null)) {
       return ApiResponse.fail(ErrorCode.BAD_REQUEST.getCode(), ErrorCode.BAD_REQUEST.getMessage());
     }
 
     int safeLimit = Math.min(Math.max(limit, 1), MAX_LIMIT);
     int safeOffset = Math.max(offset, 0);
 
-    List<PostEntity> matches = postService.search(null, normalized, null, safeLimit, safeOffset);
+    List<PostEntity> matches = postService.search(null, normalized, null, safeLimit, safeOffset, after);
+    Map<Long, AuthorProfile> authors = authorProfileResolver.resolve(
+        matches.stream().map(PostEntity::getAuthorId).collect(Collectors.toList()));
 
     List<PostSummaryView> views = matches.stream().map(p -> {
+        AuthorProfile author = authors.get(p.getAuthorId());
         PostSummaryView v = new PostSummaryView();
         v.id = p.getId();
         v.authorId = p.getAuthorId();
+        v.authorName = author != null ? author.getNickname() : null;
+        v.authorAvatar = author != null ? author.getAvatarUrl() : null;
         v.title = p.getTitle();
         v.slug = p.getSlug();
         v.summary = p.getSummary();
         v.tags = TagParser.parseTags(p.getTagsCsv());
         v.category = p.getCategory();
         v.createdAt = p.getCreatedAt();
+        v.likeCount = p.getLikeCount();
+        v.favoriteCount = p.getFavoriteCount();
+        v.commentCount = p.getCommentCount();
+        v.cursor = PostCursor.encode(Boolean.TRUE.equals(p.getIsPinned()), p.getCreatedAt(), p.getId());
         return v;
     }).collect(Collectors.toList());
 
@@ -428,11 +445,18 @@ public class TagController {
     public Long id;
     @JsonSerialize(using = ToStringSerializer.class)
     public Long authorId;
+    public String authorName;
+    public String authorAvatar;
     public String title;
     public String slug;
     public String summary;
     public List<String> tags;
     public String category;
     public LocalDateTime createdAt;
+    /** 传给下一页请求的 cursor 参数 */
+    public String cursor;
+    public Integer likeCount;
+    public Integer favoriteCount;
+    public Integer commentCount;
   }
 }
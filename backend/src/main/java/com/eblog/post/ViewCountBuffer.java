@@ -0,0 +1,161 @@
+package com.eblog.post;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 浏览量写缓冲（write-behind）。
+ *
+ * <p>每次浏览只在内存中按文章累加（LongAdder，热点文章无锁竞争），由定时任务把增量
+ * 合并成多行 UPDATE 批量写回，应用关闭时再刷一次。写库失败的增量会放回缓冲等待下次重试。
+ *
+ * <p>刷写用 sumThenReset 就地取走增量，累加器保留在表中，刷写期间的并发计数留到下一轮。
+ * 整个刷写间隔内没有新浏览的文章才从表中移除；移除前后落入旧累加器的计数由刷写或 record
+ * 之一通过 sumThenReset 取走，不会丢失。
+ */
+@Component
+public class ViewCountBuffer {
+
+  private static final Logger log = LoggerFactory.getLogger(ViewCountBuffer.class);
+
+  private final PostMapper postMapper;
+  private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+  private final LongAdder flushedViews = new LongAdder();
+  private final LongAdder flushFailures = new LongAdder();
+
+  @Value("${app.posts.view-count.batch-size:500}")
+  private int batchSize = 500;
+
+  public ViewCountBuffer(PostMapper postMapper) {
+    this.postMapper = postMapper;
+  }
+
+  public void record(Long postId) {
+    if (postId != null) {
+      add(postId, 1);
+    }
+  }
+
+  private void add(Long postId, long views) {
+    LongAdder adder = pending.computeIfAbsent(postId, k -> new LongAdder());
+    adder.add(views);
+    // 刷写可能恰好把这个闲置的累加器移出了表：没被刷写取走的计数重新放回
+    if (pending.get(postId) != adder) {
+      long stranded = adder.sumThenReset();
+      if (stranded > 0) {
+        add(postId, stranded);
+      }
+    }
+  }
+
+  @Scheduled(
+    fixedDelayString = "${app.posts.view-count.flush-interval-ms:5000}",
+    initialDelayString = "${app.posts.view-count.flush-interval-ms:5000}"
+  )
+  public void scheduledFlush() {
+    try {
+      flush();
+    } catch (Exception e) {
+      log.error("Error flushing view counts", e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdownFlush() {
+    int flushed = flush();
+    if (flushed > 0) {
+      log.info("Flushed {} buffered post view counts on shutdown", flushed);
+    }
+  }
+
+  /**
+   * 把当前缓冲的增量写回数据库，返回写回的文章数。
+   */
+  public synchronized int flush() {
+    if (pending.isEmpty()) {
+      return 0;
+    }
+    List<ViewDelta> drained = new ArrayList<>();
+    for (Map.Entry<Long, LongAdder> e : pending.entrySet()) {
+      Long postId = e.getKey();
+      LongAdder adder = e.getValue();
+      long delta = adder.sumThenReset();
+      if (delta == 0 && pending.remove(postId, adder)) {
+        // 闲置文章：remove 之前已拿到该累加器的 record 可能仍写入它，移除后再取一次，
+        // 之后写入的由 record 发现累加器已不在表中并放回
+        delta = adder.sumThenReset();
+      }
+      if (delta > 0) {
+        drained.add(new ViewDelta(postId, delta));
+      }
+    }
+
+    int safeBatch = Math.min(Math.max(batchSize, 1), 1000);
+    int flushed = 0;
+    for (int i = 0; i < drained.size(); i += safeBatch) {
+      List<ViewDelta> batch = drained.subList(i, Math.min(i + safeBatch, drained.size()));
+      try {
+        postMapper.addViewCounts(batch);
+        flushed += batch.size();
+        for (ViewDelta d : batch) {
+          flushedViews.add(d.getDelta());
+        }
+      } catch (RuntimeException e) {
+        flushFailures.increment();
+        for (ViewDelta d : batch) {
+          add(d.getPostId(), d.getDelta());
+        }
+        log.warn("Failed to flush {} post view counts, will retry: {}", batch.size(), e.getMessage());
+      }
+    }
+    return flushed;
+  }
+
+  public Stats stats() {
+    Stats s = new Stats();
+    for (Map.Entry<Long, LongAdder> e : pending.entrySet()) {
+      long v = e.getValue().sum();
+      if (v > 0) {
+        s.pendingPosts++;
+        s.pendingViews += v;
+      }
+    }
+    s.flushedViews = flushedViews.sum();
+    s.flushFailures = flushFailures.sum();
+    return s;
+  }
+
+  public static final class ViewDelta {
+    private final Long postId;
+    private final long delta;
+
+    ViewDelta(Long postId, long delta) {
+      this.postId = postId;
+      this.delta = delta;
+    }
+
+    public Long getPostId() {
+      return postId;
+    }
+
+    public long getDelta() {
+      return delta;
+    }
+  }
+
+  public static class Stats {
+    public int pendingPosts;
+    public long pendingViews;
+    public long flushedViews;
+    public long flushFailures;
+  }
+}
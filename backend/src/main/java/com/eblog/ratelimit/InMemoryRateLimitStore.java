@@ -0,0 +1,184 @@
+package com.eblog.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单机内存限流存储：滑动窗口计数（sliding window counter）。
+ *
+ * <p>每个 key 只保存当前窗口与上一窗口的计数，估算值 = 上一窗口计数 × 剩余重叠比例 + 当前窗口计数。
+ *
+ * <p>内存有界：每个策略各自最多保留 maxKeys 个 key，某个策略的 key 被刷满不会挤占其他策略。
+ * 达到上限时先清理闲置 key，再按最近访问时间淘汰未处于限流状态的 key；只有全部 key 都处于限流状态时，
+ * 才淘汰最久未访问的限流 key，刚好腾出新 key 的位置（新 key 照常计数，不会因表满被拒绝）。
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+  private final int maxKeys;
+  private final ConcurrentHashMap<String, ConcurrentHashMap<String, Window>> policies = new ConcurrentHashMap<>();
+  private final LongAdder expired = new LongAdder();
+  private final LongAdder evicted = new LongAdder();
+  private final LongAdder evictedBlocked = new LongAdder();
+
+  public InMemoryRateLimitStore(int maxKeys) {
+    this.maxKeys = Math.max(maxKeys, 1);
+  }
+
+  @Override
+  public boolean tryAcquire(RateLimitPolicy policy, String key, long now) {
+    ConcurrentHashMap<String, Window> windows =
+        policies.computeIfAbsent(policy.getName(), n -> new ConcurrentHashMap<>());
+    if (windows.size() >= maxKeys && !windows.containsKey(key)) {
+      makeRoom(windows, now);
+    }
+
+    boolean[] allowed = new boolean[1];
+    windows.compute(key, (k, w) -> {
+      Window window = w != null ? w : new Window(policy.getWindowMillis(), policy.getMaxRequests());
+      allowed[0] = window.tryAcquire(now);
+      return window;
+    });
+    return allowed[0];
+  }
+
+  @Override
+  public int sweep(long now) {
+    int removed = 0;
+    for (ConcurrentHashMap<String, Window> windows : policies.values()) {
+      removed += sweep(windows, now);
+    }
+    expired.add(removed);
+    return removed;
+  }
+
+  @Override
+  public RateLimitStats stats() {
+    RateLimitStats s = new RateLimitStats();
+    s.backend = "memory";
+    for (ConcurrentHashMap<String, Window> windows : policies.values()) {
+      s.keys += windows.size();
+    }
+    s.maxKeys = maxKeys;
+    s.expired = expired.sum();
+    s.evicted = evicted.sum();
+    s.evictedBlocked = evictedBlocked.sum();
+    return s;
+  }
+
+  private static int sweep(ConcurrentHashMap<String, Window> windows, long now) {
+    int removed = 0;
+    for (String key : windows.keySet()) {
+      boolean[] idle = new boolean[1];
+      windows.computeIfPresent(key, (k, w) -> {
+        idle[0] = w.isIdle(now);
+        return idle[0] ? null : w;
+      });
+      if (idle[0]) {
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * 单个策略达到上限时腾出空间：未限流的 key 一次性降到上限的 90%，摊薄全表扫描的开销；
+   * 限流中的 key 只淘汰到刚好低于上限。
+   */
+  private void makeRoom(ConcurrentHashMap<String, Window> windows, long now) {
+    synchronized (windows) {
+      if (windows.size() < maxKeys) {
+        return;
+      }
+      expired.add(sweep(windows, now));
+      int target = Math.max(maxKeys - Math.max(maxKeys / 10, 1), 0);
+      if (windows.size() <= target) {
+        return;
+      }
+      List<Candidate> candidates = new ArrayList<>();
+      for (Map.Entry<String, Window> e : windows.entrySet()) {
+        Window w = e.getValue();
+        synchronized (w) {
+          candidates.add(new Candidate(e.getKey(), w.lastSeen, w.isBlocked(now)));
+        }
+      }
+      candidates.sort(Comparator.comparing((Candidate c) -> c.blocked).thenComparingLong(c -> c.lastSeen));
+      for (Candidate c : candidates) {
+        if (windows.size() <= target || (c.blocked && windows.size() < maxKeys)) {
+          break;
+        }
+        boolean[] removed = new boolean[1];
+        windows.computeIfPresent(c.key, (k, w) -> {
+          removed[0] = c.blocked || !w.isBlocked(now);
+          return removed[0] ? null : w;
+        });
+        if (removed[0]) {
+          (c.blocked ? evictedBlocked : evicted).increment();
+        }
+      }
+    }
+  }
+
+  private static final class Candidate {
+    private final String key;
+    private final long lastSeen;
+    private final boolean blocked;
+
+    private Candidate(String key, long lastSeen, boolean blocked) {
+      this.key = key;
+      this.lastSeen = lastSeen;
+      this.blocked = blocked;
+    }
+  }
+
+  /**
+   * 单个 key 的窗口状态，修改只在 ConcurrentHashMap.compute 内进行。
+   */
+  private static final class Window {
+    private final long windowMillis;
+    private final int max;
+    private long start = Long.MIN_VALUE;
+    private int current;
+    private int previous;
+    private long lastSeen;
+
+    private Window(long windowMillis, int max) {
+      this.windowMillis = windowMillis;
+      this.max = max;
+    }
+
+    private synchronized boolean tryAcquire(long now) {
+      roll(now);
+      lastSeen = now;
+      if (estimate(now) + 1 > max) {
+        return false;
+      }
+      current++;
+      return true;
+    }
+
+    private synchronized boolean isBlocked(long now) {
+      roll(now);
+      return estimate(now) + 1 > max;
+    }
+
+    private synchronized boolean isIdle(long now) {
+      return now - start >= 2 * windowMillis;
+    }
+
+    private void roll(long now) {
+      long aligned = SlidingWindow.windowStart(now, windowMillis);
+      if (aligned != start) {
+        previous = start != Long.MIN_VALUE && aligned - start == windowMillis ? current : 0;
+        current = 0;
+        start = aligned;
+      }
+    }
+
+    private double estimate(long now) {
+      return SlidingWindow.estimate(previous, current, start, now, windowMillis);
+    }
+  }
+}
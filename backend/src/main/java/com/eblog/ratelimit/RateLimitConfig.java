@@ -0,0 +1,26 @@
+package com.eblog.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 按 app.rate-limit.backend 选择限流存储：memory（默认，单机）或 mysql（多节点共享）。
+ */
+@Configuration
+public class RateLimitConfig {
+
+  @Bean
+  @ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "memory", matchIfMissing = true)
+  public RateLimitStore inMemoryRateLimitStore(@Value("${app.rate-limit.max-keys:100000}") int maxKeys) {
+    return new InMemoryRateLimitStore(maxKeys);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "mysql")
+  public RateLimitStore jdbcRateLimitStore(JdbcTemplate jdbcTemplate) {
+    return new JdbcRateLimitStore(jdbcTemplate);
+  }
+}
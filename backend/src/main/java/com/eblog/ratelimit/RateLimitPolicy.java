@@ -0,0 +1,41 @@
+package com.eblog.ratelimit;
+
+/**
+ * 限流策略：在 windowSeconds 秒内最多允许 maxRequests 次。
+ *
+ * <p>name 用于区分不同业务的计数空间（如 login / comment），同一个 key 在不同策略下互不影响。
+ */
+public final class RateLimitPolicy {
+  private final String name;
+  private final int maxRequests;
+  private final long windowSeconds;
+
+  private RateLimitPolicy(String name, int maxRequests, long windowSeconds) {
+    this.name = name;
+    this.maxRequests = maxRequests;
+    this.windowSeconds = windowSeconds;
+  }
+
+  public static RateLimitPolicy of(String name, int maxRequests, long windowSeconds) {
+    if (name == null || name.trim().isEmpty()) {
+      throw new IllegalArgumentException("policy name is required");
+    }
+    return new RateLimitPolicy(name.trim(), Math.max(maxRequests, 0), Math.max(windowSeconds, 1));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getMaxRequests() {
+    return maxRequests;
+  }
+
+  public long getWindowSeconds() {
+    return windowSeconds;
+  }
+
+  public long getWindowMillis() {
+    return windowSeconds * 1000L;
+  }
+}
@@ -0,0 +1,10 @@
+package com.eblog.ratelimit;
+
+public class RateLimitStats {
+  public String backend;
+  public long keys;
+  public int maxKeys;
+  public long expired;
+  public long evicted;
+  public long evictedBlocked;
+}
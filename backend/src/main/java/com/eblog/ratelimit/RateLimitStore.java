@@ -0,0 +1,19 @@
+package com.eblog.ratelimit;
+
+/**
+ * 限流计数存储 SPI。
+ *
+ * <p>实现需保证同一 (policy, key) 上的 tryAcquire 原子执行；被拒绝的请求不计入配额。
+ * 内置实现：{@link InMemoryRateLimitStore}（单机）与 {@link JdbcRateLimitStore}（多节点共享，基于 MySQL）。
+ */
+public interface RateLimitStore {
+
+  boolean tryAcquire(RateLimitPolicy policy, String key, long nowMillis);
+
+  /**
+   * 清理闲置超过两个窗口的 key，返回清理数量。
+   */
+  int sweep(long nowMillis);
+
+  RateLimitStats stats();
+}
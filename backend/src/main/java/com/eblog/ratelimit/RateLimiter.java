@@ -0,0 +1,84 @@
+package com.eblog.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 共享限流器：滑动窗口计数（sliding window counter），计数存放在 {@link RateLimitStore}。
+ *
+ * <p>全部用时间戳计算，不依赖后台线程；闲置超过两个窗口的 key 由定时任务和调用计数顺带清理。
+ */
+@Component
+public class RateLimiter {
+  private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+  private static final int SWEEP_EVERY_CALLS = 1024;
+
+  private final RateLimitStore store;
+  private final LongSupplier clock;
+  private final AtomicLong calls = new AtomicLong();
+
+  @Autowired
+  public RateLimiter(RateLimitStore store) {
+    this(store, System::currentTimeMillis);
+  }
+
+  RateLimiter(LongSupplier clock, int maxKeys) {
+    this(new InMemoryRateLimitStore(maxKeys), clock);
+  }
+
+  RateLimiter(RateLimitStore store, LongSupplier clock) {
+    this.store = store;
+    this.clock = clock;
+  }
+
+  /**
+   * 尝试占用一次配额，超出策略限制时返回 false（被拒绝的请求不计数）。
+   */
+  public boolean tryAcquire(RateLimitPolicy policy, String key) {
+    if (policy == null || key == null) {
+      return true;
+    }
+    long now = clock.getAsLong();
+    boolean allowed = store.tryAcquire(policy, key, now);
+    if (calls.incrementAndGet() % SWEEP_EVERY_CALLS == 0) {
+      sweep(now);
+    }
+    return allowed;
+  }
+
+  @Scheduled(
+    fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}",
+    initialDelayString = "${app.rate-limit.sweep-interval-ms:60000}"
+  )
+  public void scheduledSweep() {
+    try {
+      sweep(clock.getAsLong());
+    } catch (Exception e) {
+      log.warn("Error sweeping rate limit keys: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * 清理闲置 key，返回清理数量。
+   */
+  public int sweep() {
+    return sweep(clock.getAsLong());
+  }
+
+  public long size() {
+    return store.stats().keys;
+  }
+
+  public RateLimitStats stats() {
+    return store.stats();
+  }
+
+  private int sweep(long now) {
+    return store.sweep(now);
+  }
+}
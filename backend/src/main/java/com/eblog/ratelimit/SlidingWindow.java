@@ -0,0 +1,21 @@
+package com.eblog.ratelimit;
+
+/**
+ * 滑动窗口计数的时间戳运算，内存与数据库两种存储共用。
+ */
+final class SlidingWindow {
+
+  private SlidingWindow() {}
+
+  static long windowStart(long now, long windowMillis) {
+    return now - Math.floorMod(now, windowMillis);
+  }
+
+  /**
+   * 估算值 = 上一窗口计数 × 上一窗口仍落在滑动区间内的比例 + 当前窗口计数。
+   */
+  static double estimate(int previous, int current, long windowStart, long now, long windowMillis) {
+    double overlap = (double) (windowMillis - (now - windowStart)) / windowMillis;
+    return previous * overlap + current;
+  }
+}
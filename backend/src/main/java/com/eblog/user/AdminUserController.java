@@ -26,10 +26,12 @@ public class AdminUserController {
 
   private final UserMapper userMapper;
   private final RefreshTokenMapper refreshTokenMapper;
+  private final AuthorProfileCache authorProfileCache;
 
-  public AdminUserController(UserMapper userMapper, RefreshTokenMapper refreshTokenMapper) {
+  public AdminUserController(UserMapper userMapper, RefreshTokenMapper refreshTokenMapper, AuthorProfileCache authorProfileCache) {
     this.userMapper = userMapper;
     this.refreshTokenMapper = refreshTokenMapper;
+    this.authorProfileCache = authorProfileCache;
   }
 
   @GetMapping
@@ -65,6 +67,7 @@ public class AdminUserController {
     user.setBannedAt(LocalDateTime.now());
     user.setUpdatedAt(LocalDateTime.now());
     userMapper.updateById(user);
+    authorProfileCache.invalidate(userId);
 
     revokeAllRefreshTokens(userId);
 
@@ -87,6 +90,7 @@ public class AdminUserController {
     user.setBannedAt(null);
     user.setUpdatedAt(LocalDateTime.now());
     userMapper.updateById(user);
+    authorProfileCache.invalidate(userId);
 
     return ApiResponse.ok(null);
   }
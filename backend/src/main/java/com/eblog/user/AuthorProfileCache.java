@@ -0,0 +1,129 @@
+package com.eblog.user;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 作者展示信息缓存（昵称、头像）。
+ *
+ * <p>基于 ConcurrentHashMap，读路径无锁；条目带 TTL，过期后视为未命中。
+ * 条目数超过上限时先清理过期项，仍超出则任意淘汰直到回到上限。
+ * 资料更新、封禁/解封时需调用 {@link #invalidate(Long)} 主动失效。
+ */
+@Component
+public class AuthorProfileCache {
+  private final int maxEntries;
+  private final long ttlMillis;
+  private final LongSupplier clock;
+  private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  @Autowired
+  public AuthorProfileCache(
+      @Value("${app.users.profile-cache.max-entries:10000}") int maxEntries,
+      @Value("${app.users.profile-cache.ttl-seconds:300}") long ttlSeconds) {
+    this(maxEntries, ttlSeconds, System::currentTimeMillis);
+  }
+
+  AuthorProfileCache(int maxEntries, long ttlSeconds, LongSupplier clock) {
+    this.maxEntries = Math.max(maxEntries, 0);
+    this.ttlMillis = Math.max(ttlSeconds, 0) * 1000L;
+    this.clock = clock;
+  }
+
+  public AuthorProfileResolver.AuthorProfile get(Long userId) {
+    if (userId == null) {
+      return null;
+    }
+    Entry e = entries.get(userId);
+    if (e == null) {
+      misses.increment();
+      return null;
+    }
+    if (e.expiresAt <= clock.getAsLong()) {
+      entries.remove(userId, e);
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return e.profile;
+  }
+
+  public void put(AuthorProfileResolver.AuthorProfile profile) {
+    if (profile == null || profile.getId() == null || maxEntries == 0 || ttlMillis == 0) {
+      return;
+    }
+    entries.put(profile.getId(), new Entry(profile, clock.getAsLong() + ttlMillis));
+    if (entries.size() > maxEntries) {
+      shrink();
+    }
+  }
+
+  public void invalidate(Long userId) {
+    if (userId != null && entries.remove(userId) != null) {
+      invalidations.increment();
+    }
+  }
+
+  public void clear() {
+    entries.clear();
+  }
+
+  public Stats stats() {
+    Stats s = new Stats();
+    s.entries = entries.size();
+    s.maxEntries = maxEntries;
+    s.ttlSeconds = ttlMillis / 1000L;
+    s.hits = hits.sum();
+    s.misses = misses.sum();
+    s.evictions = evictions.sum();
+    s.invalidations = invalidations.sum();
+    return s;
+  }
+
+  private void shrink() {
+    long now = clock.getAsLong();
+    Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+    while (it.hasNext()) {
+      if (it.next().getValue().expiresAt <= now) {
+        it.remove();
+        evictions.increment();
+      }
+    }
+    it = entries.entrySet().iterator();
+    while (entries.size() > maxEntries && it.hasNext()) {
+      it.next();
+      it.remove();
+      evictions.increment();
+    }
+  }
+
+  private static final class Entry {
+    private final AuthorProfileResolver.AuthorProfile profile;
+    private final long expiresAt;
+
+    private Entry(AuthorProfileResolver.AuthorProfile profile, long expiresAt) {
+      this.profile = profile;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  public static class Stats {
+    public int entries;
+    public int maxEntries;
+    public long ttlSeconds;
+    public long hits;
+    public long misses;
+    public long evictions;
+    public long invalidations;
+  }
+}
@@ -0,0 +1,100 @@
+package com.eblog.user;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+
+/**
+ * 批量解析作者展示信息（昵称、头像）。
+ *
+ * <p>列表接口先收集整页的作者 ID，先查 {@link AuthorProfileCache}，未命中的再用一条 IN 查询取回，
+ * 避免逐条 selectById 带来的 N+1。
+ */
+@Component
+public class AuthorProfileResolver {
+  private final UserMapper userMapper;
+  private final AuthorProfileCache cache;
+
+  public AuthorProfileResolver(UserMapper userMapper, AuthorProfileCache cache) {
+    this.userMapper = userMapper;
+    this.cache = cache;
+  }
+
+  public Map<Long, AuthorProfile> resolve(Collection<Long> authorIds) {
+    Map<Long, AuthorProfile> res = new HashMap<>();
+    if (authorIds == null || authorIds.isEmpty()) {
+      return res;
+    }
+    Set<Long> ids = new LinkedHashSet<>();
+    for (Long id : authorIds) {
+      if (id != null && !res.containsKey(id)) {
+        AuthorProfile cached = cache.get(id);
+        if (cached != null) {
+          res.put(id, cached);
+        } else {
+          ids.add(id);
+        }
+      }
+    }
+    if (ids.isEmpty()) {
+      return res;
+    }
+
+    List<UserEntity> users = userMapper.selectProfilesByIds(ids);
+    for (UserEntity u : users) {
+      AuthorProfile profile = AuthorProfile.of(u.getId(), u);
+      res.put(u.getId(), profile);
+      cache.put(profile);
+    }
+    // 不存在的用户不进缓存，只返回占位昵称
+    for (Long id : ids) {
+      res.computeIfAbsent(id, k -> AuthorProfile.of(k, null));
+    }
+    return res;
+  }
+
+  public AuthorProfile resolve(Long authorId) {
+    if (authorId == null) {
+      return AuthorProfile.of(null, null);
+    }
+    return resolve(List.of(authorId)).get(authorId);
+  }
+
+  public static final class AuthorProfile {
+    private final Long id;
+    private final String nickname;
+    private final String avatarUrl;
+
+    private AuthorProfile(Long id, String nickname, String avatarUrl) {
+      this.id = id;
+      this.nickname = nickname;
+      this.avatarUrl = avatarUrl;
+    }
+
+    static AuthorProfile of(Long id, UserEntity user) {
+      if (id == null) {
+        return new AuthorProfile(null, null, null);
+      }
+      String nickname = user != null && user.getNickname() != null && !user.getNickname().trim().isEmpty()
+          ? user.getNickname().trim()
+          : "#" + id;
+      return new AuthorProfile(id, nickname, user != null ? user.getAvatarUrl() : null);
+    }
+
+    public Long getId() {
+      return id;
+    }
+
+    public String getNickname() {
+      return nickname;
+    }
+
+    public String getAvatarUrl() {
+      return avatarUrl;
+    }
+  }
+}
@@ -22,11 +22,13 @@ import org.springframework.web.bind.annotation.RestController;
 public class MeController {
 
   private final UserMapper userMapper;
+  private final AuthorProfileCache authorProfileCache;
   private final RefreshTokenMapper refreshTokenMapper;
   private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
-  public MeController(UserMapper userMapper, RefreshTokenMapper refreshTokenMapper) {
+  public MeController(UserMapper userMapper, RefreshTokenMapper refreshTokenMapper, AuthorProfileCache authorProfileCache) {
     this.userMapper = userMapper;
+    this.authorProfileCache = authorProfileCache;
     this.refreshTokenMapper = refreshTokenMapper;
   }
 
@@ -78,6 +80,7 @@ public class MeController {
     }
     user.setUpdatedAt(LocalDateTime.now(ZoneOffset.UTC));
     userMapper.updateById(user);
+    authorProfileCache.invalidate(userId);
 
     UserView view = new UserView();
     view.id = user.getId();
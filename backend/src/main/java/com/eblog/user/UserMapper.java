@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -15,4 +16,11 @@ public interface UserMapper extends BaseMapper<UserEntity> {
             "ORDER BY COUNT(p.id) DESC " +
             "LIMIT #{limit}")
     List<UserEntity> selectActiveUsers(@Param("limit") int limit);
+
+    // 仅取展示作者所需的列，供列表页批量补全作者信息
+    @Select("<script>" +
+            "SELECT id, nickname, avatar_url FROM users WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<UserEntity> selectProfilesByIds(@Param("ids") Collection<Long> ids);
 }
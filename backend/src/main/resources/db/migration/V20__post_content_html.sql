@@ -0,0 +1,7 @@
+-- 文章正文预渲染：写入时渲染并清洗 Markdown，读取时直接返回
+-- content_html_version 对应 MarkdownRenderer.VERSION，渲染配置变更后由后台任务回填
+-- 回填任务每分钟按 content_html_version 查找落后的行，索引保证无落后数据时不扫全表
+ALTER TABLE posts
+  ADD COLUMN content_html MEDIUMTEXT NULL COMMENT '预渲染并清洗后的正文HTML（MDX文章为空）' AFTER content_markdown,
+  ADD COLUMN content_html_version INT NOT NULL DEFAULT 0 COMMENT '生成content_html时的渲染器版本，0表示未渲染' AFTER content_html,
+  ADD KEY idx_posts_content_html_version (content_html_version, id);
@@ -0,0 +1,15 @@
+-- 列表改为 keyset 分页：按 (created_at, id) / (is_pinned, created_at, id) 定位下一页
+-- is_pinned 在 V19 中被改为可空，NULL 会破坏游标比较，这里归一为 FALSE 并恢复 NOT NULL
+UPDATE posts SET is_pinned = FALSE WHERE is_pinned IS NULL;
+
+ALTER TABLE posts
+  MODIFY COLUMN is_pinned BOOLEAN NOT NULL DEFAULT FALSE COMMENT '是否置顶：true-置顶，false-不置顶';
+
+-- 首页列表 / 标签页
+CREATE INDEX idx_posts_public_created ON posts (status, moderation_status, created_at, id);
+
+-- 搜索（置顶优先）
+CREATE INDEX idx_posts_public_pinned ON posts (status, moderation_status, is_pinned, created_at, id);
+
+-- 我的文章
+CREATE INDEX idx_posts_author_updated ON posts (author_id, updated_at, id);
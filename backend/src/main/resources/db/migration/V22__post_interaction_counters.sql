@@ -0,0 +1,14 @@
+-- 点赞/收藏/评论计数反范式到 posts，由业务代码增量维护，后台任务定期对账修正
+ALTER TABLE posts
+  ADD COLUMN like_count INT NOT NULL DEFAULT 0 COMMENT '点赞数' AFTER view_count,
+  ADD COLUMN favorite_count INT NOT NULL DEFAULT 0 COMMENT '收藏数' AFTER like_count,
+  ADD COLUMN comment_count INT NOT NULL DEFAULT 0 COMMENT '可见评论数（已发布且未被拒绝）' AFTER favorite_count;
+
+UPDATE posts p
+SET p.like_count = (SELECT COUNT(*) FROM post_likes l WHERE l.post_id = p.id),
+    p.favorite_count = (SELECT COUNT(*) FROM post_favorites f WHERE f.post_id = p.id),
+    p.comment_count = (
+      SELECT COUNT(*) FROM comments c
+      WHERE c.post_id = p.id AND c.status = 'PUBLISHED' AND c.moderation_status <> 'REJECTED'
+    ),
+    p.updated_at = p.updated_at;
@@ -0,0 +1,12 @@
+-- 多节点共享的限流计数（app.rate-limit.backend=mysql 时使用）
+-- 每个 (policy, limit_key) 一行，保存滑动窗口的当前/上一窗口计数
+CREATE TABLE IF NOT EXISTS rate_limit_counters (
+  policy VARCHAR(64) NOT NULL COMMENT '限流策略名，如 login / comment',
+  limit_key VARCHAR(191) NOT NULL COMMENT '限流 key，如 IP、用户ID',
+  window_start BIGINT NOT NULL COMMENT '当前窗口起点（epoch 毫秒）',
+  current_count INT NOT NULL DEFAULT 0 COMMENT '当前窗口计数',
+  previous_count INT NOT NULL DEFAULT 0 COMMENT '上一窗口计数',
+  expires_at BIGINT NOT NULL COMMENT '闲置清理时间（epoch 毫秒）',
+  PRIMARY KEY (policy, limit_key),
+  KEY idx_rate_limit_expires (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='限流计数';
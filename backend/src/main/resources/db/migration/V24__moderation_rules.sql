@@ -0,0 +1,15 @@
+-- 审核规则集：每次发布新增一个版本，最新版本生效；旧版本保留用于审计回溯
+CREATE TABLE IF NOT EXISTS moderation_rules (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  version INT NOT NULL COMMENT '规则集版本，单调递增',
+  sensitive_words MEDIUMTEXT NULL COMMENT '敏感词，每行一个',
+  max_external_links INT NOT NULL DEFAULT 10 COMMENT '外链数量阈值',
+  note VARCHAR(255) NULL COMMENT '发布说明',
+  published_by BIGINT NULL COMMENT '发布人（管理员ID）',
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  UNIQUE KEY uk_moderation_rules_version (version)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='审核规则集';
+
+-- 审计日志记录评估时使用的规则集版本（0 表示 application.yml 中的初始规则）
+ALTER TABLE audit_logs
+  ADD COLUMN rule_version INT NULL COMMENT '规则集版本' AFTER rule_hit;
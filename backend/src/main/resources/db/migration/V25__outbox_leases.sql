@@ -0,0 +1,13 @@
+-- 审核任务认领改为租约：认领时写入 claimed_by / lease_expires_at，节点宕机后由回收任务在租约到期时放回队列；
+-- 失败任务按 next_attempt_at 指数退避重试。V10 预留但从未使用的 locked_by / next_run_at 改名复用，locked_at 由租约取代。
+ALTER TABLE moderation_outbox DROP INDEX idx_moderation_outbox_due;
+
+ALTER TABLE moderation_outbox
+  DROP COLUMN locked_at,
+  CHANGE COLUMN locked_by claimed_by VARCHAR(64) NULL COMMENT '持有租约的 worker 节点',
+  CHANGE COLUMN next_run_at next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最早可再次认领的时间',
+  ADD COLUMN lease_expires_at TIMESTAMP NULL COMMENT '租约到期时间，仅 PROCESSING 状态有效' AFTER claimed_by;
+
+ALTER TABLE moderation_outbox
+  ADD KEY idx_moderation_outbox_due (status, next_attempt_at),
+  ADD KEY idx_moderation_outbox_lease (status, lease_expires_at);
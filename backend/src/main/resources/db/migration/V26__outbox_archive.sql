@@ -0,0 +1,25 @@
+-- 审核任务归档：COMPLETED / DEAD_LETTER 超过保留期后分批移入归档表，保持 moderation_outbox 只含活跃任务，
+-- 认领查询的索引扫描范围不随历史总量增长。
+-- 归档表主键含 archived_at，运维可按需改为按 archived_at 的 RANGE 分区，过期分区直接 DROP。
+CREATE TABLE IF NOT EXISTS moderation_outbox_archive (
+  id BIGINT NOT NULL,
+  entity_type VARCHAR(32) NOT NULL,
+  entity_id BIGINT NOT NULL,
+  status VARCHAR(32) NOT NULL,
+  attempts INT NOT NULL,
+  last_error VARCHAR(255) NULL,
+  deduplication_key VARCHAR(255) NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  updated_at TIMESTAMP NOT NULL,
+  archived_at DATETIME NOT NULL,
+  PRIMARY KEY (id, archived_at),
+  KEY idx_moderation_outbox_archive_entity (entity_type, entity_id),
+  KEY idx_moderation_outbox_archive_archived (archived_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='已完成/死信审核任务归档';
+
+-- 认领查询：status IN (...) AND next_attempt_at <= NOW() AND attempts < 3 ORDER BY next_attempt_at
+-- attempts 放进索引，不满足重试上限的行在索引层过滤，不回表
+ALTER TABLE moderation_outbox DROP INDEX idx_moderation_outbox_due;
+ALTER TABLE moderation_outbox
+  ADD KEY idx_moderation_outbox_due (status, next_attempt_at, attempts),
+  ADD KEY idx_moderation_outbox_retention (status, updated_at);
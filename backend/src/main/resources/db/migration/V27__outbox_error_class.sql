@@ -0,0 +1,9 @@
+-- 记录失败异常类型，后台按异常类型查看、批量重放死信任务
+ALTER TABLE moderation_outbox
+  ADD COLUMN last_error_class VARCHAR(128) NULL COMMENT '最近一次失败的异常类型' AFTER last_error;
+
+ALTER TABLE moderation_outbox_archive
+  ADD COLUMN last_error_class VARCHAR(128) NULL COMMENT '最近一次失败的异常类型' AFTER last_error;
+
+ALTER TABLE moderation_outbox
+  ADD KEY idx_moderation_outbox_error (status, last_error_class, id);
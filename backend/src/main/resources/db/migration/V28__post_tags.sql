@@ -0,0 +1,52 @@
+-- 文章-标签关联表：取代按 tags_csv LIKE 过滤（无法走索引，且 java 会误匹配 javascript）
+-- posts.tags_csv 仍保留作为展示用的原始输入，关联由 PostService 在同一事务内维护
+CREATE TABLE IF NOT EXISTS post_tags (
+    post_id BIGINT NOT NULL COMMENT '文章ID',
+    tag_id BIGINT NOT NULL COMMENT '标签ID',
+    PRIMARY KEY (post_id, tag_id),
+    INDEX idx_post_tags_tag (tag_id, post_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='文章标签关联表';
+
+-- 回填：用递归 CTE 拆分已有 tags_csv，规范化规则与 TagParser.normalize 一致（合并空白、去首尾空白、转小写）
+CREATE TEMPORARY TABLE tmp_post_tag_names (
+    post_id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    PRIMARY KEY (post_id, name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT IGNORE INTO tmp_post_tag_names (post_id, name)
+WITH RECURSIVE split (post_id, item, rest) AS (
+    SELECT id,
+           SUBSTRING_INDEX(tags_csv, ',', 1),
+           IF(LOCATE(',', tags_csv) > 0, SUBSTRING(tags_csv, LOCATE(',', tags_csv) + 1), NULL)
+    FROM posts
+    WHERE tags_csv IS NOT NULL AND TRIM(tags_csv) <> ''
+    UNION ALL
+    SELECT post_id,
+           SUBSTRING_INDEX(rest, ',', 1),
+           IF(LOCATE(',', rest) > 0, SUBSTRING(rest, LOCATE(',', rest) + 1), NULL)
+    FROM split
+    WHERE rest IS NOT NULL
+)
+SELECT post_id, LEFT(LOWER(TRIM(REGEXP_REPLACE(item, '[[:space:]]+', ' '))), 100)
+FROM split
+WHERE TRIM(REGEXP_REPLACE(item, '[[:space:]]+', ' ')) <> '';
+
+-- 补齐 tags 中缺失的标签：优先用 ASCII slug，冲突或为空时退回 MD5
+INSERT IGNORE INTO tags (name, slug, post_count, created_at)
+SELECT DISTINCT name, TRIM(BOTH '-' FROM REGEXP_REPLACE(name, '[^a-z0-9]+', '-')), 0, NOW()
+FROM tmp_post_tag_names
+WHERE TRIM(BOTH '-' FROM REGEXP_REPLACE(name, '[^a-z0-9]+', '-')) <> '';
+
+INSERT IGNORE INTO tags (name, slug, post_count, created_at)
+SELECT DISTINCT n.name, MD5(n.name), 0, NOW()
+FROM tmp_post_tag_names n
+LEFT JOIN tags t ON t.name = n.name
+WHERE t.id IS NULL;
+
+INSERT IGNORE INTO post_tags (post_id, tag_id)
+SELECT n.post_id, t.id
+FROM tmp_post_tag_names n
+JOIN tags t ON t.name = n.name;
+
+DROP TEMPORARY TABLE tmp_post_tag_names;
@@ -0,0 +1,6 @@
+-- 全文索引改用 ngram 解析器：默认解析器按空格、标点切词，中文整句成为一个词，几乎无法命中。
+-- ngram 按 ngram_token_size（服务端参数，默认 2）切分连续字符，中英文均可检索；
+-- 修改 ngram_token_size 后需重建本索引。
+ALTER TABLE posts DROP INDEX idx_posts_fulltext;
+
+ALTER TABLE posts ADD FULLTEXT INDEX idx_posts_fulltext (title, summary, content_markdown) WITH PARSER ngram;
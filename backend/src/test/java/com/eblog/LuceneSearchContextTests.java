@@ -0,0 +1,31 @@
+package com.eblog;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import com.eblog.post.LuceneSearchIndex;
+import com.eblog.post.SearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(
+    properties = {
+      "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration",
+      "spring.datasource.url=jdbc:h2:mem:eblog;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "app.search.engine=lucene",
+      "app.search.lucene.path=target/test-search-index",
+      "app.search.lucene.rebuild-on-startup=false"
+    })
+class LuceneSearchContextTests {
+
+  @Autowired
+  private SearchIndex searchIndex;
+
+  @Test
+  void wiresLuceneAsTheOnlySearchIndex() {
+    assertInstanceOf(LuceneSearchIndex.class, searchIndex);
+  }
+}
@@ -3,13 +3,15 @@ package com.eblog.auth;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.eblog.ratelimit.InMemoryRateLimitStore;
+import com.eblog.ratelimit.RateLimiter;
 import org.junit.jupiter.api.Test;
 
 class LoginRateLimiterTest {
 
   @Test
   void blocksAfterMaxAttemptsInWindow() {
-    LoginRateLimiter limiter = new LoginRateLimiter();
+    LoginRateLimiter limiter = new LoginRateLimiter(new RateLimiter(new InMemoryRateLimitStore(1000)), 10, 300);
     String key = "127.0.0.1:foo@example.com";
     for (int i = 0; i < 10; i++) {
       assertTrue(limiter.tryConsume(key));
@@ -0,0 +1,87 @@
+package com.eblog.interaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.eblog.interaction.mapper.PostFavoriteMapper;
+import com.eblog.interaction.mapper.PostLikeMapper;
+import com.eblog.post.PostEntity;
+import com.eblog.post.PostMapper;
+import com.eblog.ratelimit.InMemoryRateLimitStore;
+import com.eblog.ratelimit.RateLimiter;
+import java.util.Collections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+@ExtendWith(MockitoExtension.class)
+class InteractionServiceTest {
+
+  @Mock
+  private PostLikeMapper postLikeMapper;
+
+  @Mock
+  private PostFavoriteMapper postFavoriteMapper;
+
+  @Mock
+  private PostMapper postMapper;
+
+  private InteractionService service;
+
+  @BeforeEach
+  void setup() {
+    service = new InteractionService(postLikeMapper, postFavoriteMapper, postMapper, new RateLimiter(new InMemoryRateLimitStore(1000)), 10, 60);
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken("7", null, Collections.emptyList()));
+  }
+
+  @AfterEach
+  void cleanup() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void likeIncrementsDenormalizedCounter() {
+    PostEntity post = new PostEntity();
+    post.setId(1L);
+    post.setStatus("PUBLISHED");
+    post.setModerationStatus("APPROVED");
+    when(postMapper.selectById(1L)).thenReturn(post);
+    when(postMapper.selectLikeCount(1L)).thenReturn(4);
+
+    InteractionService.LikeResult res = service.likePost(1L);
+
+    assertEquals(4, res.getLikeCount());
+    verify(postMapper).adjustLikeCount(1L, 1);
+    verify(postLikeMapper, never()).countByPostId(any());
+  }
+
+  @Test
+  void unlikeOnlyDecrementsWhenRowDeleted() {
+    when(postLikeMapper.delete(any())).thenReturn(0);
+
+    assertNull(service.unlikePost(1L));
+
+    verify(postMapper, never()).adjustLikeCount(eq(1L), anyInt());
+  }
+
+  @Test
+  void unfavoriteDecrementsCounter() {
+    when(postFavoriteMapper.deleteByPostAndUser(1L, 7L)).thenReturn(1);
+
+    assertNull(service.unfavoritePost(1L));
+
+    verify(postMapper).adjustFavoriteCount(1L, -1);
+  }
+}
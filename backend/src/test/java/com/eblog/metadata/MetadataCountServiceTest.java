@@ -0,0 +1,82 @@
+package com.eblog.metadata;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.eblog.post.PostTag;
+import com.eblog.post.PostTagMapper;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MetadataCountServiceTest {
+
+    @Mock
+    private TagMapper tagMapper;
+
+    @Mock
+    private CategoryMapper categoryMapper;
+
+    @Mock
+    private PostTagMapper postTagMapper;
+
+    private MetadataCountService service;
+
+    @BeforeEach
+    void setup() {
+        service = new MetadataCountService(tagMapper, categoryMapper, postTagMapper);
+    }
+
+    @Test
+    void batchGroupsTagUpdatesByDelta() {
+        Map<Long, String> posts = new HashMap<>();
+        posts.put(1L, "dev");
+        posts.put(2L, " dev ");
+        posts.put(3L, null);
+        when(postTagMapper.selectByPostIds(anyCollection())).thenReturn(List.of(
+            new PostTag(1L, 10L), new PostTag(2L, 10L), new PostTag(2L, 11L), new PostTag(3L, 12L)));
+        when(categoryMapper.adjustPostCount("dev", -2)).thenReturn(1);
+
+        service.postsLeft(posts);
+
+        verify(tagMapper).adjustPostCount(List.of(10L), -2);
+        verify(tagMapper).adjustPostCount(argThatContainsExactly(11L, 12L), eq(-1));
+        verify(categoryMapper).adjustPostCount("dev", -2);
+    }
+
+    @Test
+    void createsMissingCategoryWhenPostEnters() {
+        when(postTagMapper.selectByPostIds(anyCollection())).thenReturn(List.of());
+        when(categoryMapper.adjustPostCount("随笔", 1)).thenReturn(0);
+        when(categoryMapper.insertIgnore(eq("随笔"), anyString(), eq(1))).thenReturn(1);
+
+        service.postEntered(5L, "随笔");
+
+        verify(categoryMapper).insertIgnore(eq("随笔"), anyString(), eq(1));
+    }
+
+    @Test
+    void categoryChangeIgnoresWhitespaceOnlyDifferences() {
+        service.categoryChanged("dev", " dev ");
+        service.tagsChanged(List.of(), List.of());
+
+        verify(categoryMapper, never()).adjustPostCount(anyString(), anyInt());
+        verify(tagMapper, never()).adjustPostCount(anyCollection(), anyInt());
+    }
+
+    private static java.util.Collection<Long> argThatContainsExactly(Long... ids) {
+        return org.mockito.ArgumentMatchers.argThat(c -> c != null && Set.copyOf(c).equals(Set.of(ids)) && c.size() == ids.length);
+    }
+}
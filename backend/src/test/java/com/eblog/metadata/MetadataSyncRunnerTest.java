@@ -0,0 +1,114 @@
+package com.eblog.metadata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.eblog.post.PostEntity;
+import com.eblog.post.PostMapper;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class MetadataSyncRunnerTest {
+
+    @Mock
+    private PostMapper postMapper;
+
+    @Mock
+    private CategoryMapper categoryMapper;
+
+    @Mock
+    private TagMapper tagMapper;
+
+    private MetadataSyncRunner runner;
+
+    @BeforeEach
+    void setup() {
+        runner = new MetadataSyncRunner(postMapper, categoryMapper, tagMapper,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(runner, "batchSize", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamsPostsAndWritesOnlyDriftedRowsInChunks() throws Exception {
+        List<PostEntity> posts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            posts.add(post("Java, tag" + i, i % 2 == 0 ? "dev" : null));
+        }
+        Cursor<PostEntity> cursor = mock(Cursor.class);
+        when(cursor.iterator()).thenReturn(posts.iterator());
+        when(postMapper.streamCountedMetadata()).thenReturn(cursor);
+        when(categoryMapper.selectPostCounts()).thenReturn(List.of(category(1L, "dev", 3), category(2L, "old", 4)));
+        when(tagMapper.selectPostCounts()).thenReturn(List.of(tag(10L, "Java", 1), tag(11L, "tag0", 1)));
+        when(categoryMapper.updatePostCounts(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+        when(tagMapper.updatePostCounts(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+        when(tagMapper.insertIgnoreBatch(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        MetadataSyncRunner.Progress progress = runner.resync();
+
+        verify(cursor).close();
+        assertEquals("DONE", progress.getPhase());
+        assertEquals(5, progress.getPostsScanned());
+        // "dev" 已是 3 不写；"old" 归零
+        verify(categoryMapper).updatePostCounts(argThat(rows -> rows.size() == 1 && rows.get(0).getPostCount() == 0));
+        verify(categoryMapper, never()).insertIgnoreBatch(anyList());
+        // "Java" 1 -> 5；tag0 不变；tag1..tag4 新建，按 2 行一批
+        verify(tagMapper).updatePostCounts(argThat(rows -> rows.size() == 1 && rows.get(0).getPostCount() == 5));
+        verify(tagMapper, times(2)).insertIgnoreBatch(argThat(rows -> rows.size() == 2));
+        assertEquals(1, progress.getCategoriesWritten());
+        assertEquals(5, progress.getTagsWritten());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void retriesIgnoredInsertWithRandomSlug() {
+        Cursor<PostEntity> cursor = mock(Cursor.class);
+        when(cursor.iterator()).thenReturn(List.of(post(null, "随笔")).iterator());
+        when(postMapper.streamCountedMetadata()).thenReturn(cursor);
+        when(categoryMapper.selectPostCounts()).thenReturn(List.of());
+        when(tagMapper.selectPostCounts()).thenReturn(List.of());
+        when(categoryMapper.insertIgnoreBatch(anyList())).thenReturn(0, 0, 1);
+
+        assertEquals(1, runner.resync().getCategoriesWritten());
+        verify(categoryMapper, times(3)).insertIgnoreBatch(anyList());
+    }
+
+    private static PostEntity post(String tags, String category) {
+        PostEntity p = new PostEntity();
+        p.setTagsCsv(tags);
+        p.setCategory(category);
+        return p;
+    }
+
+    private static CategoryEntity category(Long id, String name, int count) {
+        CategoryEntity c = new CategoryEntity();
+        c.setId(id);
+        c.setName(name);
+        c.setPostCount(count);
+        return c;
+    }
+
+    private static TagEntity tag(Long id, String name, int count) {
+        TagEntity t = new TagEntity();
+        t.setId(id);
+        t.setName(name);
+        t.setPostCount(count);
+        return t;
+    }
+}
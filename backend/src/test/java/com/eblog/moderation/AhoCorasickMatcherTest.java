@@ -0,0 +1,48 @@
+package com.eblog.moderation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class AhoCorasickMatcherTest {
+
+  @Test
+  void reportsOverlappingHitsWithOffsets() {
+    AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("he", "she", "his", "hers"));
+
+    List<AhoCorasickMatcher.Match> hits = matcher.findAll("uSHErs");
+
+    assertEquals(List.of("she", "he", "hers"),
+        hits.stream().map(AhoCorasickMatcher.Match::getWord).collect(Collectors.toList()));
+    assertEquals(1, hits.get(0).getStart());
+    assertEquals(4, hits.get(0).getEnd());
+    assertEquals(2, hits.get(2).getStart());
+    assertEquals(6, hits.get(2).getEnd());
+  }
+
+  @Test
+  void findsWordsInLargeDictionaryAndChineseText() {
+    List<String> words = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      words.add("word" + i);
+    }
+    words.add("赌博");
+    AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(words);
+
+    assertEquals("赌博", matcher.findFirst("这里有在线赌博网站").getWord());
+    List<String> hits = matcher.findAll("xx WORD4999 yy").stream()
+        .map(AhoCorasickMatcher.Match::getWord).collect(Collectors.toList());
+    assertEquals(List.of("word4", "word49", "word499", "word4999"), hits);
+    assertNull(matcher.findFirst("nothing to see"));
+  }
+
+  @Test
+  void emptyDictionaryNeverMatches() {
+    assertNull(AhoCorasickMatcher.compile(List.of(" ", "")).findFirst("anything"));
+    assertEquals(0, AhoCorasickMatcher.EMPTY.findAll("anything").size());
+  }
+}
@@ -0,0 +1,69 @@
+package com.eblog.moderation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.eblog.moderation.enums.ModerationStatus;
+import com.eblog.moderation.enums.OutboxStatus;
+import com.eblog.moderation.mapper.OutboxMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ModerationMetricsTest {
+
+  @Mock
+  private OutboxMapper outboxMapper;
+
+  private SimpleMeterRegistry registry;
+  private ModerationMetrics metrics;
+
+  @BeforeEach
+  void setup() {
+    registry = new SimpleMeterRegistry();
+    metrics = new ModerationMetrics(registry, outboxMapper);
+  }
+
+  @Test
+  void countsDecisionsAndGroupsSensitiveWordHits() {
+    metrics.recordDecision("POST",
+        new RuleEngine.RuleResult(ModerationStatus.REJECTED, "r", "SENSITIVE_WORD_SPAM", 1), LocalDateTime.now().minusSeconds(2));
+    metrics.recordDecision("POST",
+        new RuleEngine.RuleResult(ModerationStatus.REJECTED, "r", "SENSITIVE_WORD_CASINO", 1), LocalDateTime.now());
+    metrics.recordDecision("COMMENT",
+        new RuleEngine.RuleResult(ModerationStatus.NEEDS_REVIEW, "r", "LINK_COUNT_THRESHOLD", 1), null);
+    metrics.recordOutcome("POST", "dead_letter");
+
+    assertEquals(2.0, registry.get("eblog.moderation.tasks").tags("entity_type", "POST", "outcome", "rejected").counter().count());
+    assertEquals(1.0, registry.get("eblog.moderation.tasks").tags("outcome", "dead_letter").counter().count());
+    assertEquals(2.0, registry.get("eblog.moderation.rule.hits").tag("rule", "SENSITIVE_WORD").counter().count());
+    assertEquals(1.0, registry.get("eblog.moderation.rule.hits").tag("rule", "LINK_COUNT_THRESHOLD").counter().count());
+    assertEquals(2, registry.get("eblog.moderation.decision.latency").tag("entity_type", "POST").timer().count());
+  }
+
+  @Test
+  void refreshesQueueDepthFromSnapshot() {
+    OutboxStatusCount pending = new OutboxStatusCount();
+    pending.setStatus("PENDING");
+    pending.setCount(12);
+    DeadLetterCount dead = new DeadLetterCount();
+    dead.setEntityType("COMMENT");
+    dead.setErrorClass("java.lang.IllegalStateException");
+    dead.setCount(3);
+    when(outboxMapper.countByStatus()).thenReturn(List.of(pending));
+    when(outboxMapper.countDeadLetters()).thenReturn(List.of(dead));
+
+    metrics.refreshQueueGauges();
+
+    assertEquals(12.0, registry.get("eblog.moderation.outbox.depth").tag("status", "PENDING").gauge().value());
+    assertEquals(0.0, registry.get("eblog.moderation.outbox.depth").tag("status", "FAILED").gauge().value());
+    assertEquals(3.0, registry.get("eblog.moderation.outbox.dead_letters").tag("entity_type", "COMMENT").gauge().value());
+    assertEquals(12, metrics.depth(OutboxStatus.PENDING));
+  }
+}
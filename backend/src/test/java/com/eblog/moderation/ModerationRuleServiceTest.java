@@ -0,0 +1,90 @@
+package com.eblog.moderation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.eblog.moderation.entity.ModerationRuleSetEntity;
+import com.eblog.moderation.enums.ModerationStatus;
+import com.eblog.moderation.mapper.ModerationRuleMapper;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+@ExtendWith(MockitoExtension.class)
+class ModerationRuleServiceTest {
+
+  @Mock
+  private ModerationRuleMapper ruleMapper;
+
+  private RuleEngine ruleEngine;
+  private ModerationRuleService service;
+
+  @BeforeEach
+  void setup() {
+    ruleEngine = new RuleEngine();
+    ruleEngine.setSensitiveWordsConfig("spam");
+    ruleEngine.init();
+    service = new ModerationRuleService(ruleMapper, ruleEngine);
+  }
+
+  @Test
+  void publishAppliesNextVersionImmediately() {
+    when(ruleMapper.selectLatestVersion()).thenReturn(3);
+
+    ModerationRuleSetEntity published = service.publish(Arrays.asList(" Casino ", "casino", "", null), 2, "launch", 9L);
+
+    assertEquals(4, published.getVersion());
+    assertEquals("casino", published.getSensitiveWords());
+    assertEquals(4, ruleEngine.getRuleVersion());
+    RuleEngine.RuleResult result = ruleEngine.evaluate("t", "online casino");
+    assertEquals(ModerationStatus.REJECTED, result.getStatus());
+    assertEquals(4, result.getRuleVersion());
+    assertEquals(ModerationStatus.APPROVED, ruleEngine.evaluate("t", "spam").getStatus());
+  }
+
+  @Test
+  void concurrentPublishKeepsCurrentRules() {
+    when(ruleMapper.selectLatestVersion()).thenReturn(null);
+    when(ruleMapper.insert(any(ModerationRuleSetEntity.class))).thenThrow(new DuplicateKeyException("version"));
+
+    assertNull(service.publish(List.of("casino"), 2, null, 9L));
+    assertEquals(0, ruleEngine.getRuleVersion());
+  }
+
+  @Test
+  void refreshLoadsOnlyNewerVersions() {
+    ModerationRuleSetEntity rules = new ModerationRuleSetEntity();
+    rules.setVersion(2);
+    rules.setSensitiveWords("lottery\ncasino");
+    rules.setMaxExternalLinks(1);
+    when(ruleMapper.selectLatestVersion()).thenReturn(2);
+    when(ruleMapper.selectLatest()).thenReturn(rules);
+
+    service.refresh();
+    assertEquals(2, ruleEngine.getRuleVersion());
+    assertEquals(2, ruleEngine.getSensitiveWordCount());
+
+    service.refresh();
+    verify(ruleMapper, times(1)).selectLatest();
+  }
+
+  @Test
+  void refreshSkipsWhenNothingPublished() {
+    when(ruleMapper.selectLatestVersion()).thenReturn(null);
+
+    service.refresh();
+
+    verify(ruleMapper, never()).selectLatest();
+    assertEquals(1, ruleEngine.getSensitiveWordCount());
+  }
+}
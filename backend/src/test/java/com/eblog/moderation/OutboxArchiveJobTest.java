@@ -0,0 +1,67 @@
+package com.eblog.moderation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.eblog.moderation.enums.OutboxStatus;
+import com.eblog.moderation.mapper.OutboxMapper;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxArchiveJobTest {
+
+  @Mock
+  private OutboxMapper outboxMapper;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private OutboxArchiveJob job;
+
+  @BeforeEach
+  void setup() {
+    job = new OutboxArchiveJob(outboxMapper, new TransactionTemplate(transactionManager));
+    ReflectionTestUtils.setField(job, "batchSize", 2);
+  }
+
+  @Test
+  void movesRowsInBoundedChunksUntilDrained() {
+    when(outboxMapper.selectArchivableIds(eq("COMPLETED"), any(LocalDateTime.class), eq(2)))
+        .thenReturn(List.of(1L, 2L))
+        .thenReturn(List.of(3L));
+
+    int archived = job.archive(OutboxStatus.COMPLETED, LocalDateTime.now());
+
+    assertEquals(3, archived);
+    verify(outboxMapper).copyToArchive(List.of(1L, 2L));
+    verify(outboxMapper).deleteArchived(List.of(1L, 2L));
+    verify(outboxMapper).copyToArchive(List.of(3L));
+    verify(outboxMapper).deleteArchived(List.of(3L));
+    verify(transactionManager, times(2)).commit(any());
+  }
+
+  @Test
+  void skipsWritesWhenNothingIsDue() {
+    when(outboxMapper.selectArchivableIds(eq("DEAD_LETTER"), any(LocalDateTime.class), anyInt())).thenReturn(List.of());
+
+    assertEquals(0, job.archive(OutboxStatus.DEAD_LETTER, LocalDateTime.now()));
+
+    verify(outboxMapper, never()).copyToArchive(any());
+    verify(outboxMapper, never()).deleteArchived(any());
+  }
+}
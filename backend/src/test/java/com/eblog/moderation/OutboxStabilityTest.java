@@ -6,11 +6,14 @@ import com.eblog.moderation.mapper.OutboxMapper;
 import com.eblog.moderation.mapper.AuditLogMapper;
 import com.eblog.post.PostMapper;
 import com.eblog.comment.mapper.CommentMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Collections;
 
@@ -34,7 +37,9 @@ class OutboxStabilityTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         outboxService = new OutboxService(outboxMapper);
-        workerService = new WorkerService(outboxService, ruleEngine, auditLogMapper, postMapper, commentMapper, moderationService);
+        workerService = new WorkerService(outboxService, ruleEngine, auditLogMapper, postMapper, commentMapper, moderationService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new ModerationMetrics(new SimpleMeterRegistry(), outboxMapper));
     }
 
     @Test
@@ -84,8 +89,8 @@ class OutboxStabilityTest {
         workerService.processOutbox();
 
         // Then: markFailed should be called (since attempts < 3)
-        verify(outboxMapper).markFailed(eq(10L), contains("DB Error"));
-        verify(outboxMapper, never()).markDeadLetter(anyLong(), anyString());
+        verify(outboxMapper).markFailed(eq(10L), eq(outboxService.getNodeId()), contains("DB Error"), eq("java.lang.RuntimeException"), eq(30L));
+        verify(outboxMapper, never()).markDeadLetter(anyLong(), anyString(), anyString(), anyString());
     }
 
     @Test
@@ -104,7 +109,185 @@ class OutboxStabilityTest {
         workerService.processOutbox();
 
         // Then: markDeadLetter should be called
-        verify(outboxMapper).markDeadLetter(eq(10L), contains("Fatal Error"));
-        verify(outboxMapper, never()).markFailed(anyLong(), anyString());
+        verify(outboxMapper).markDeadLetter(eq(10L), eq(outboxService.getNodeId()), contains("Fatal Error"), eq("java.lang.RuntimeException"));
+        verify(outboxMapper, never()).markFailed(anyLong(), anyString(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void testClaimMarksWholeBatchProcessing() {
+        OutboxEntity first = new OutboxEntity();
+        first.setId(1L);
+        OutboxEntity second = new OutboxEntity();
+        second.setId(2L);
+        when(outboxMapper.lockPendingTasks(5)).thenReturn(java.util.List.of(first, second));
+
+        assertEquals(2, outboxService.claimTasks(5).size());
+
+        verify(outboxMapper).markProcessingBatch(eq(java.util.List.of(1L, 2L)), eq(outboxService.getNodeId()), eq(300));
+        assertEquals(OutboxStatus.PROCESSING.name(), first.getStatus());
+    }
+
+    @Test
+    void testWorkerProcessesBatchInParallel() throws Exception {
+        java.util.List<OutboxEntity> tasks = new java.util.ArrayList<>();
+        for (long i = 1; i <= 4; i++) {
+            OutboxEntity task = new OutboxEntity();
+            task.setId(i);
+            task.setEntityType("POST");
+            task.setEntityId(100L + i);
+            task.setAttempts(0);
+            tasks.add(task);
+        }
+        when(outboxMapper.lockPendingTasks(anyInt())).thenReturn(tasks);
+        // 4 个任务互相等待，只有并行执行才能全部通过
+        java.util.concurrent.CyclicBarrier barrier = new java.util.concurrent.CyclicBarrier(4);
+        when(postMapper.selectById(anyLong())).thenAnswer(inv -> {
+            barrier.await(5, java.util.concurrent.TimeUnit.SECONDS);
+            return null;
+        });
+        when(outboxMapper.markCompleted(anyLong(), anyString())).thenReturn(1);
+        org.springframework.test.util.ReflectionTestUtils.setField(workerService, "workerBatchSize", 4);
+
+        assertEquals(4, workerService.processOutbox());
+
+        verify(outboxMapper, times(4)).markCompleted(anyLong(), anyString());
+        verify(outboxMapper, never()).markFailed(anyLong(), anyString(), anyString(), anyString(), anyLong());
+        workerService.shutdown();
+    }
+
+    @Test
+    void testWakeUpTriggersImmediateClaim() {
+        OutboxEntity task = new OutboxEntity();
+        task.setId(7L);
+        task.setEntityType("POST");
+        task.setEntityId(70L);
+        task.setAttempts(0);
+        // 兜底轮询间隔拉长到 60s，只有唤醒才能让任务在超时前被处理
+        org.springframework.test.util.ReflectionTestUtils.setField(workerService, "workerIntervalSeconds", 60);
+        org.springframework.test.util.ReflectionTestUtils.setField(workerService, "minPollMs", 60_000L);
+        when(outboxMapper.markCompleted(anyLong(), anyString())).thenReturn(1);
+        workerService.start();
+        try {
+            verify(outboxMapper, timeout(2000)).lockPendingTasks(anyInt());
+            when(outboxMapper.lockPendingTasks(anyInt()))
+                .thenReturn(Collections.singletonList(task))
+                .thenReturn(Collections.emptyList());
+
+            workerService.onOutboxEnqueued(new OutboxEnqueuedEvent("POST", 70L));
+
+            verify(outboxMapper, timeout(2000)).markCompleted(eq(7L), anyString());
+        } finally {
+            workerService.shutdown();
+        }
+    }
+
+    @Test
+    void testRetryBackoffIsExponentialAndCapped() {
+        assertEquals(30L, outboxService.retryDelaySeconds(0));
+        assertEquals(60L, outboxService.retryDelaySeconds(1));
+        assertEquals(120L, outboxService.retryDelaySeconds(2));
+        assertEquals(3600L, outboxService.retryDelaySeconds(20));
+    }
+
+    @Test
+    void testLostLeaseDiscardsResultWithoutCountingFailure() {
+        OutboxEntity task = new OutboxEntity();
+        task.setId(11L);
+        task.setEntityType("POST");
+        task.setEntityId(110L);
+        task.setAttempts(0);
+        when(outboxMapper.lockPendingTasks(anyInt())).thenReturn(Collections.singletonList(task));
+        // 租约已被回收，markCompleted 不再命中
+        when(outboxMapper.markCompleted(anyLong(), anyString())).thenReturn(0);
+
+        workerService.processOutbox();
+
+        verify(outboxMapper).markCompleted(eq(11L), anyString());
+        verify(outboxMapper, never()).markFailed(anyLong(), anyString(), anyString(), anyString(), anyLong());
+        verify(outboxMapper, never()).markDeadLetter(anyLong(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testBatchLoadsAndCompletesWholeChunk() {
+        java.util.List<OutboxEntity> tasks = new java.util.ArrayList<>();
+        java.util.List<com.eblog.post.PostEntity> posts = new java.util.ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            OutboxEntity task = new OutboxEntity();
+            task.setId(i);
+            task.setEntityType("POST");
+            task.setEntityId(100L + i);
+            task.setAttempts(0);
+            tasks.add(task);
+            com.eblog.post.PostEntity post = new com.eblog.post.PostEntity();
+            post.setId(100L + i);
+            post.setTitle("t" + i);
+            post.setContentMarkdown("c" + i);
+            posts.add(post);
+        }
+        when(outboxMapper.lockPendingTasks(anyInt())).thenReturn(tasks);
+        when(postMapper.selectModerationInputs(anyCollection())).thenReturn(posts);
+        when(ruleEngine.evaluate(anyString(), anyString()))
+            .thenReturn(new RuleEngine.RuleResult(com.eblog.moderation.enums.ModerationStatus.APPROVED, null, null, 1));
+        when(outboxMapper.markCompletedBatch(anyList(), anyString())).thenReturn(3);
+        org.springframework.test.util.ReflectionTestUtils.setField(workerService, "workerBatchSize", 3);
+        org.springframework.test.util.ReflectionTestUtils.setField(workerService, "concurrency", 1);
+
+        assertEquals(3, workerService.processOutbox());
+
+        verify(postMapper, times(1)).selectModerationInputs(anyCollection());
+        verify(postMapper, never()).selectById(anyLong());
+        verify(moderationService, times(1)).applyPostDecisions(argThat(d -> d.size() == 3), anyMap());
+        verify(outboxMapper).markCompletedBatch(eq(java.util.List.of(1L, 2L, 3L)), anyString());
+        verify(outboxMapper, never()).markCompleted(anyLong(), anyString());
+        workerService.shutdown();
+    }
+
+    @Test
+    void testBatchFailureFallsBackToPerTask() {
+        java.util.List<OutboxEntity> tasks = new java.util.ArrayList<>();
+        for (long i = 1; i <= 2; i++) {
+            OutboxEntity task = new OutboxEntity();
+            task.setId(i);
+            task.setEntityType("POST");
+            task.setEntityId(100L + i);
+            task.setAttempts(0);
+            tasks.add(task);
+        }
+        when(outboxMapper.lockPendingTasks(anyInt())).thenReturn(tasks);
+        when(postMapper.selectModerationInputs(anyCollection())).thenThrow(new RuntimeException("Batch Error"));
+        when(outboxMapper.markCompleted(anyLong(), anyString())).thenReturn(1);
+        org.springframework.test.util.ReflectionTestUtils.setField(workerService, "workerBatchSize", 2);
+        org.springframework.test.util.ReflectionTestUtils.setField(workerService, "concurrency", 1);
+
+        workerService.processOutbox();
+
+        verify(postMapper, times(2)).selectById(anyLong());
+        verify(outboxMapper, times(2)).markCompleted(anyLong(), anyString());
+        workerService.shutdown();
+    }
+
+    @Test
+    void testRequeueDeadLettersIsThrottled() {
+        org.springframework.test.util.ReflectionTestUtils.setField(outboxService, "requeueRatePerSecond", 2);
+        when(outboxMapper.requeueDeadLetters(anyList(), anyLong())).thenAnswer(inv -> ((java.util.List<?>) inv.getArgument(0)).size());
+
+        int requeued = outboxService.requeueDeadLetters(java.util.List.of(1L, 2L, 3L, 4L, 5L), null, null, 100);
+
+        assertEquals(5, requeued);
+        verify(outboxMapper).requeueDeadLetters(java.util.List.of(1L, 2L), 0L);
+        verify(outboxMapper).requeueDeadLetters(java.util.List.of(3L, 4L), 1L);
+        verify(outboxMapper).requeueDeadLetters(java.util.List.of(5L), 2L);
+    }
+
+    @Test
+    void testRequeueByErrorClassSelectsMatchingDeadLetters() {
+        OutboxEntity dead = new OutboxEntity();
+        dead.setId(42L);
+        when(outboxMapper.listDeadLetters("POST", "java.lang.IllegalStateException", null, 10)).thenReturn(java.util.List.of(dead));
+        when(outboxMapper.requeueDeadLetters(anyList(), anyLong())).thenReturn(1);
+
+        assertEquals(1, outboxService.requeueDeadLetters(null, "POST", " java.lang.IllegalStateException ", 10));
+
+        verify(outboxMapper).requeueDeadLetters(java.util.List.of(42L), 0L);
     }
 }
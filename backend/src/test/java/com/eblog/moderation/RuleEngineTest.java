@@ -1,6 +1,8 @@
 package com.eblog.moderation;
 
 import com.eblog.moderation.enums.ModerationStatus;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -60,4 +62,118 @@ class RuleEngineTest {
 
     assertEquals(ModerationStatus.APPROVED, result.getStatus());
   }
+
+  @Test
+  void deniedDomainRejectsIncludingSubdomains() {
+    RuleEngine engine = new RuleEngine();
+    engine.setDomainLists("", "bad.example");
+    engine.init();
+
+    RuleEngine.RuleResult result = engine.evaluate("Title", "see HTTPS://Cdn.Bad.Example/x and https://ok.com");
+
+    assertEquals(ModerationStatus.REJECTED, result.getStatus());
+    assertEquals("Content links to denied domain: cdn.bad.example", result.getReason());
+    assertEquals("DENIED_DOMAIN", result.getRuleHit());
+  }
+
+  @Test
+  void allowedDomainsAreNotCountedAsExternalLinks() {
+    RuleEngine engine = new RuleEngine();
+    engine.setMaxExternalLinks(2);
+    engine.setDomainLists("eblog.dev", "");
+
+    String content = String.join(" ", "https://eblog.dev/a", "https://docs.eblog.dev/b", "https://www.eblog.dev/c",
+      "http://one.com", "https://two.com.");
+
+    assertEquals(ModerationStatus.APPROVED, engine.evaluate("", content).getStatus());
+  }
+
+  @Test
+  void needsReviewWhenTooManyDistinctDomains() {
+    RuleEngine engine = new RuleEngine();
+    engine.setMaxExternalDomains(2);
+
+    RuleEngine.RuleResult sameDomain = engine.evaluate("https://a.com/1", "https://A.com/2 https://a.com/3");
+    RuleEngine.RuleResult manyDomains = engine.evaluate("https://a.com/1", "https://b.com https://c.com");
+
+    assertEquals(ModerationStatus.APPROVED, sameDomain.getStatus());
+    assertEquals(ModerationStatus.NEEDS_REVIEW, manyDomains.getStatus());
+    assertEquals("Too many external domains: 3", manyDomains.getReason());
+  }
+
+  @Test
+  void countsLinksAndWordsInLargePostInOnePass() {
+    RuleEngine engine = new RuleEngine();
+    engine.setSensitiveWordsConfig("gambling");
+    engine.setMaxExternalLinks(Integer.MAX_VALUE);
+    engine.init();
+
+    StringBuilder sb = new StringBuilder(1 << 20);
+    int links = 0;
+    while (sb.length() < (1 << 20)) {
+      sb.append("plain text https://host").append(links % 50).append(".com/path?q=1 more words\n");
+      links++;
+    }
+    assertEquals(ModerationStatus.APPROVED, engine.evaluate("Title", sb.toString()).getStatus());
+
+    engine.setMaxExternalLinks(links - 1);
+    assertEquals("Too many external links: " + links, engine.evaluate("Title", sb.toString()).getReason());
+
+    sb.append("GAMBLING");
+    assertEquals("Content contains sensitive word: gambling", engine.evaluate("Title", sb.toString()).getReason());
+  }
+
+  @Test
+  void ignoresIncompleteSchemes() {
+    RuleEngine engine = new RuleEngine();
+    engine.setMaxExternalLinks(0);
+
+    assertEquals(ModerationStatus.APPROVED, engine.evaluate("http:/x.com", "https:// ftp://a.com hxxp://b.com").getStatus());
+    assertEquals(ModerationStatus.NEEDS_REVIEW, engine.evaluate("", "hhttp://a.com").getStatus());
+  }
+
+  @Test
+  void concurrentHotReloadsKeepEachOthersChanges() throws Exception {
+    for (int round = 0; round < 200; round++) {
+      RuleEngine engine = new RuleEngine();
+      CountDownLatch start = new CountDownLatch(1);
+      Thread words = new Thread(() -> {
+        await(start);
+        engine.setSensitiveWords(List.of("casino"));
+      });
+      Thread domains = new Thread(() -> {
+        await(start);
+        engine.setDomainLists("", "bad.example");
+      });
+      words.start();
+      domains.start();
+      start.countDown();
+      words.join();
+      domains.join();
+
+      assertEquals(1, engine.getSensitiveWordCount());
+      assertEquals(ModerationStatus.REJECTED, engine.evaluate("t", "see https://bad.example/x").getStatus());
+    }
+  }
+
+  @Test
+  void ignoresRuleSetsOlderThanTheInstalledVersion() {
+    RuleEngine engine = new RuleEngine();
+    engine.apply(3, List.of("casino"), 10);
+
+    // 定时刷新读到旧版本规则集时不得覆盖 publish 刚装入的新版本
+    engine.apply(2, List.of("lottery"), 10);
+
+    assertEquals(3, engine.getRuleVersion());
+    assertEquals(ModerationStatus.REJECTED, engine.evaluate("t", "casino").getStatus());
+    assertEquals(ModerationStatus.APPROVED, engine.evaluate("t", "lottery").getStatus());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
 }
@@ -0,0 +1,117 @@
+package com.eblog.post;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LuceneSearchIndexTest {
+
+  @TempDir
+  Path dir;
+
+  private PostMapper postMapper;
+  private LuceneSearchIndex index;
+
+  @BeforeEach
+  void setup() throws Exception {
+    postMapper = mock(PostMapper.class);
+    when(postMapper.listIndexInputs(anyLong(), anyInt())).thenReturn(List.of(
+        post(1L, 7L, "Spring Boot 入门", "搭建第一个 Web 应用", "java,spring", false),
+        post(2L, 8L, "数据库索引原理", "B+ 树与倒排索引", "mysql", true),
+        post(3L, 7L, "随笔", "周末读书笔记", "life", false),
+        post(4L, 8L, "倒排索引与全文检索", "搜索引擎如何构建倒排索引", "search,mysql", false)));
+    when(postMapper.selectPublicByIds(anyCollection())).thenAnswer(inv -> {
+      Collection<Long> ids = inv.getArgument(0);
+      return ids.stream().map(id -> post(id, null, null, null, null, false)).collect(Collectors.toList());
+    });
+    index = new LuceneSearchIndex(postMapper, new MysqlSearchIndex(postMapper, "boolean", "time"), dir);
+    index.rebuild();
+  }
+
+  @AfterEach
+  void cleanup() throws Exception {
+    index.close();
+  }
+
+  @Test
+  void ranksChineseMatchesByRelevance() {
+    List<Long> ids = ids(index.search(query("倒排索引", null, null, null)));
+
+    assertEquals(List.of(4L, 2L), ids);
+  }
+
+  @Test
+  void appliesTagAuthorAndPinnedFilters() {
+    assertEquals(List.of(2L), ids(index.search(query("索引", null, null, true))));
+    assertEquals(List.of(4L), ids(index.search(query("索引", "Search", null, null))));
+    assertEquals(List.of(1L), ids(index.search(query("spring", null, 7L, null))));
+    assertTrue(index.search(query("spring", null, 8L, null)).isEmpty());
+  }
+
+  @Test
+  void removesPostWhenItLeavesPublicView() throws Exception {
+    PostEntity archived = post(4L, 8L, "倒排索引与全文检索", "搜索引擎如何构建倒排索引", "search,mysql", false);
+    archived.setStatus("ARCHIVED");
+    when(postMapper.selectIndexInputs(List.of(4L))).thenReturn(List.of(archived));
+
+    index.onPostChanged(new PostChangedEvent(List.of(4L)));
+
+    assertEquals(List.of(2L), ids(index.search(query("倒排索引", null, null, null))));
+    assertEquals(3, index.numDocs());
+  }
+
+  @Test
+  void reindexesEditedPost() {
+    PostEntity edited = post(3L, 7L, "随笔：倒排索引读书笔记", null, "life", false);
+    when(postMapper.selectIndexInputs(List.of(3L))).thenReturn(List.of(edited));
+
+    index.onPostChanged(new PostChangedEvent(List.of(3L)));
+
+    assertTrue(ids(index.search(query("倒排索引", null, null, null))).contains(3L));
+  }
+
+  @Test
+  void delegatesBrowsingAndCursorPagingToMysql() {
+    SearchQuery byTag = query(null, "mysql", null, null);
+    assertFalse(index.ranksByRelevance(byTag));
+    index.search(byTag);
+    verify(postMapper).search(null, true, false, "mysql", null, null, 20, 0);
+  }
+
+  private static SearchQuery query(String q, String tag, Long authorId, Boolean pinned) {
+    return new SearchQuery(q, TagParser.normalize(tag), authorId, pinned, 20, 0, null);
+  }
+
+  private static List<Long> ids(List<PostEntity> posts) {
+    return posts.stream().map(PostEntity::getId).collect(Collectors.toList());
+  }
+
+  private static PostEntity post(Long id, Long authorId, String title, String summary, String tagsCsv, boolean pinned) {
+    PostEntity p = new PostEntity();
+    p.setId(id);
+    p.setAuthorId(authorId);
+    p.setTitle(title);
+    p.setSummary(summary);
+    p.setContentMarkdown(title);
+    p.setTagsCsv(tagsCsv);
+    p.setIsPinned(pinned);
+    p.setStatus("PUBLISHED");
+    p.setModerationStatus("APPROVED");
+    return p;
+  }
+}
@@ -0,0 +1,58 @@
+package com.eblog.post;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class MysqlSearchIndexTest {
+
+  @Test
+  void translatesKeywordsPerMode() {
+    assertEquals("spring boot", MysqlSearchIndex.toAgainst("spring boot", MysqlSearchIndex.Mode.NATURAL));
+    assertEquals("\"倒排 索引\"", MysqlSearchIndex.toAgainst("倒排\"索引", MysqlSearchIndex.Mode.PHRASE));
+    assertEquals("+java -\"spring boot\"", MysqlSearchIndex.toAgainst("+java -\"spring boot", MysqlSearchIndex.Mode.BOOLEAN));
+    assertEquals("a b", MysqlSearchIndex.toAgainst("a@(b)", MysqlSearchIndex.Mode.BOOLEAN));
+    assertNull(MysqlSearchIndex.toAgainst(null, MysqlSearchIndex.Mode.PHRASE));
+    assertEquals(MysqlSearchIndex.Mode.NATURAL, MysqlSearchIndex.Mode.parse("unknown"));
+  }
+
+  @Test
+  void normalizesBooleanOperatorsInnoDbWouldReject() {
+    assertEquals("+foo", MysqlSearchIndex.toAgainst("++foo", MysqlSearchIndex.Mode.BOOLEAN));
+    assertEquals("+foo -bar", MysqlSearchIndex.toAgainst("+-foo --bar", MysqlSearchIndex.Mode.BOOLEAN));
+    assertEquals("", MysqlSearchIndex.toAgainst("* - + \"\"", MysqlSearchIndex.Mode.BOOLEAN));
+    assertEquals("java", MysqlSearchIndex.toAgainst("java -", MysqlSearchIndex.Mode.BOOLEAN));
+    assertEquals("spr* boot", MysqlSearchIndex.toAgainst("*spr** *boot", MysqlSearchIndex.Mode.BOOLEAN));
+    assertEquals("+spring +boot*", MysqlSearchIndex.toAgainst("+spring-boot*", MysqlSearchIndex.Mode.BOOLEAN));
+    assertEquals("-\"a b\" c", MysqlSearchIndex.toAgainst("-+\"a +b\"c", MysqlSearchIndex.Mode.BOOLEAN));
+    assertEquals("", MysqlSearchIndex.toAgainst("\"+-\"", MysqlSearchIndex.Mode.PHRASE));
+  }
+
+  @Test
+  void ordersByRelevanceOnlyForKeywordQueriesWithoutCursor() {
+    PostMapper postMapper = mock(PostMapper.class);
+    MysqlSearchIndex index = new MysqlSearchIndex(postMapper, "boolean", "relevance");
+
+    SearchQuery keyword = new SearchQuery("索引", null, null, null, 20, 40, null);
+    assertTrue(index.ranksByRelevance(keyword));
+    index.search(keyword);
+    verify(postMapper).search("索引", true, true, null, null, null, 20, 40);
+
+    SearchQuery browse = new SearchQuery(null, "java", null, null, 20, 0, null);
+    assertFalse(index.ranksByRelevance(browse));
+    index.search(browse);
+    verify(postMapper).search(null, true, false, "java", null, null, 20, 0);
+
+    LocalDateTime t = LocalDateTime.of(2024, 1, 1, 0, 0);
+    SearchQuery after = new SearchQuery("索引", null, null, null, 20, 0, new PostCursor(true, t, 9L));
+    assertFalse(index.ranksByRelevance(after));
+    index.search(after);
+    verify(postMapper).searchAfter("索引", true, null, null, null, true, t, 9L, 20);
+  }
+}
@@ -0,0 +1,29 @@
+package com.eblog.post;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class PostCursorTest {
+
+  @Test
+  void roundTripsSortKeys() {
+    LocalDateTime t = LocalDateTime.of(2024, 5, 6, 7, 8, 9, 123000000);
+
+    PostCursor c = PostCursor.decode(PostCursor.encode(true, t, 99L));
+
+    assertEquals(true, c.getPinned());
+    assertEquals(t, c.getTime());
+    assertEquals(99L, c.getId());
+    assertNull(PostCursor.decode(PostCursor.encode(null, t, 1L)).getPinned());
+  }
+
+  @Test
+  void rejectsMalformedCursor() {
+    assertNull(PostCursor.decode("not-a-cursor"));
+    assertNull(PostCursor.decode(""));
+    assertNull(PostCursor.decode(null));
+  }
+}
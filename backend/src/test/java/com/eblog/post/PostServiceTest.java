@@ -10,6 +10,7 @@
  import static org.mockito.Mockito.when;
 
  import com.eblog.api.common.ErrorCode;
+ import com.eblog.metadata.MetadataCountService;
  import com.eblog.moderation.OutboxService;
  import java.util.Collections;
  import org.junit.jupiter.api.AfterEach;
@@ -19,6 +20,7 @@
  import org.mockito.ArgumentCaptor;
  import org.mockito.Mock;
  import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
  import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
  import org.springframework.security.core.authority.SimpleGrantedAuthority;
  import org.springframework.security.core.context.SecurityContextHolder;
@@ -32,11 +34,20 @@
    @Mock
    private OutboxService outboxService;
 
+   @Mock
+   private PostTagService postTagService;
+
+   @Mock
+   private MetadataCountService metadataCountService;
+
+   @Mock
+   private ApplicationEventPublisher eventPublisher;
+
    private PostService postService;
 
   @BeforeEach
   void setup() {
-    postService = new PostService(postMapper, java.util.Optional.of(outboxService));
+    postService = new PostService(postMapper, java.util.Optional.of(outboxService), new MarkdownRenderer(), new RenderedHtmlCache(1024), new ViewCountBuffer(postMapper), postTagService, metadataCountService, new MysqlSearchIndex(postMapper, "natural", "time"), eventPublisher);
   }
 
   @AfterEach
@@ -72,6 +83,22 @@
     assertEquals(7L, saved.getAuthorId());
     assertNotNull(saved.getSlug());
     assertNotEquals("", saved.getSlug());
+    verify(postTagService).replaceTags(99L, "t1,t2");
+  }
+
+  @Test
+  void createStoresPreRenderedHtml() {
+    setAuth("7", "USER");
+    when(postMapper.insert(any(PostEntity.class))).thenReturn(1);
+
+    postService.create("Title", null, "**bold** <script>x</script>", null, null, "DRAFT", "MARKDOWN");
+
+    ArgumentCaptor<PostEntity> captor = ArgumentCaptor.forClass(PostEntity.class);
+    verify(postMapper).insert(captor.capture());
+    PostEntity saved = captor.getValue();
+    assertEquals(MarkdownRenderer.VERSION, saved.getContentHtmlVersion());
+    assertEquals(true, saved.getContentHtml().contains("<strong>bold</strong>"));
+    assertEquals(false, saved.getContentHtml().contains("<script"));
   }
 
   @Test
@@ -105,6 +132,29 @@
     ArgumentCaptor<PostEntity> captor = ArgumentCaptor.forClass(PostEntity.class);
     verify(postMapper).updateById(captor.capture());
     assertEquals("p-stable", captor.getValue().getSlug());
+    assertEquals("<p>NewC</p>", captor.getValue().getContentHtml());
+    verify(postTagService, never()).replaceTags(any(), any());
+  }
+
+  @Test
+  void updateResyncsPostTagsWhenTagsChange() {
+    setAuth("7", "USER");
+    PostEntity existing = new PostEntity();
+    existing.setId(1L);
+    existing.setAuthorId(7L);
+    existing.setTagsCsv("java");
+    when(postMapper.selectById(1L)).thenReturn(existing);
+
+    ErrorCode err = postService.update(1L, null, null, null, " Java, Spring ", null, null);
+    assertEquals(null, err);
+    verify(postTagService).replaceTags(1L, "Java, Spring");
+  }
+
+  @Test
+  void searchNormalizesTagForExactMatch() {
+    when(postMapper.search(null, false, false, "spring boot", null, null, 20, 0)).thenReturn(Collections.emptyList());
+    assertNotNull(postService.search(null, "  Spring   Boot ", null, 20, 0));
+    verify(postMapper).search(null, false, false, "spring boot", null, null, 20, 0);
   }
 
   @Test
@@ -118,6 +168,43 @@
     ErrorCode err = postService.archive(1L);
     assertEquals(null, err);
     verify(postMapper).updateById(any(PostEntity.class));
+    verify(metadataCountService, never()).postLeft(any(), any());
+  }
+
+  @Test
+  void archivingVisiblePostReleasesTagAndCategoryCounts() {
+    setAuth("7", "USER");
+    PostEntity existing = visiblePost();
+    when(postMapper.selectById(1L)).thenReturn(existing);
+
+    assertEquals(null, postService.archive(1L));
+    verify(metadataCountService).postLeft(1L, "dev");
+    ArgumentCaptor<PostChangedEvent> event = ArgumentCaptor.forClass(PostChangedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertEquals(java.util.List.of(1L), event.getValue().getPostIds());
+  }
+
+  @Test
+  void editingVisiblePostAdjustsOnlyChangedTagsAndCategory() {
+    setAuth("7", "USER");
+    when(postMapper.selectById(1L)).thenReturn(visiblePost());
+    when(postTagService.replaceTags(1L, "java,go"))
+        .thenReturn(new PostTagService.Diff(java.util.List.of(5L), java.util.List.of(6L)));
+
+    assertEquals(null, postService.update(1L, null, null, null, "java,go", "ops", null));
+    verify(metadataCountService).tagsChanged(java.util.List.of(5L), java.util.List.of(6L));
+    verify(metadataCountService).categoryChanged("dev", "ops");
+    verify(metadataCountService, never()).postLeft(any(), any());
+  }
+
+  @Test
+  void unpublishingVisiblePostReleasesOldCounts() {
+    setAuth("7", "USER");
+    when(postMapper.selectById(1L)).thenReturn(visiblePost());
+
+    assertEquals(null, postService.update(1L, null, null, null, "go", "ops", "DRAFT"));
+    verify(metadataCountService).postLeft(1L, "dev");
+    verify(metadataCountService, never()).tagsChanged(any(), any());
   }
 
   @Test
@@ -126,6 +213,14 @@
     assertNotNull(postService.listPublic(20, 0));
   }
 
+  @Test
+  void listPublicWithCursorSeeksInsteadOfOffset() {
+    java.time.LocalDateTime t = java.time.LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+    when(postMapper.listPublicAfter(eq(t), eq(42L), eq(20))).thenReturn(Collections.emptyList());
+    assertNotNull(postService.listPublic(20, 500, new PostCursor(null, t, 42L)));
+    verify(postMapper, never()).listPublic(org.mockito.ArgumentMatchers.anyInt(), org.mockito.ArgumentMatchers.anyInt());
+  }
+
   @Test
   void createMdxForbiddenForNonAdmin() {
     setAuth("7", "USER");
@@ -161,6 +256,17 @@
     assertEquals(ErrorCode.FORBIDDEN, err);
   }
 
+  private static PostEntity visiblePost() {
+    PostEntity p = new PostEntity();
+    p.setId(1L);
+    p.setAuthorId(7L);
+    p.setStatus("PUBLISHED");
+    p.setModerationStatus("APPROVED");
+    p.setCategory("dev");
+    p.setTagsCsv("java,rust");
+    return p;
+  }
+
   private static void setAuth(String userId, String role) {
     UsernamePasswordAuthenticationToken auth =
         new UsernamePasswordAuthenticationToken(userId, null, java.util.Collections.singletonList(new SimpleGrantedAuthority(role)));
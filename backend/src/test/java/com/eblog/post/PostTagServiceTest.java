@@ -0,0 +1,89 @@
+package com.eblog.post;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.eblog.metadata.TagEntity;
+import com.eblog.metadata.TagMapper;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PostTagServiceTest {
+
+  @Mock
+  private PostTagMapper postTagMapper;
+
+  @Mock
+  private TagMapper tagMapper;
+
+  private PostTagService service;
+
+  @BeforeEach
+  void setup() {
+    service = new PostTagService(postTagMapper, tagMapper);
+  }
+
+  @Test
+  void onlyWritesChangedAssociations() {
+    when(tagMapper.selectByNames(anyCollection())).thenReturn(List.of(tag(1L, "java"), tag(3L, "spring")));
+    when(postTagMapper.selectTagIds(9L)).thenReturn(List.of(1L, 2L));
+
+    service.replaceTags(9L, "Java, spring ,JAVA");
+
+    verify(postTagMapper).deleteBatch(9L, List.of(2L));
+    verify(postTagMapper).insertBatch(9L, Set.of(3L));
+    verify(tagMapper, never()).insertIgnore(anyString(), anyString());
+  }
+
+  @Test
+  void createsMissingTagsAndFallsBackToRandomSlug() {
+    when(tagMapper.selectByNames(anyCollection())).thenReturn(List.of(tag(1L, "java")));
+    when(tagMapper.insertIgnore(eq("c++"), any())).thenReturn(0, 1);
+    when(tagMapper.selectIdByName("c++")).thenReturn(5L);
+
+    assertEquals(List.of(5L, 1L), service.resolveTagIds(List.of("c++", "java")));
+    verify(tagMapper).insertIgnore("c++", "c");
+    verify(tagMapper, times(2)).insertIgnore(eq("c++"), any());
+  }
+
+  @Test
+  void resolvesNamesThatOnlyCollideUnderTheColumnCollation() {
+    // uk_tags_name 认为 café 与 cafe 相同：两次插入都被忽略，只能按 SQL = 回查到已有标签
+    when(tagMapper.selectByNames(anyCollection())).thenReturn(List.of(tag(1L, "cafe")));
+    when(tagMapper.insertIgnore(eq("café"), any())).thenReturn(0);
+    when(tagMapper.selectIdByName("café")).thenReturn(1L);
+
+    assertEquals(List.of(1L), service.resolveTagIds(List.of("café")));
+  }
+
+  @Test
+  void clearsAssociationsForEmptyTags() {
+    when(postTagMapper.selectTagIds(9L)).thenReturn(List.of(4L));
+
+    service.replaceTags(9L, " , ");
+
+    verify(postTagMapper).deleteBatch(9L, List.of(4L));
+    verify(postTagMapper, never()).insertBatch(any(), anyCollection());
+    verify(tagMapper, never()).selectByNames(anyCollection());
+  }
+
+  private static TagEntity tag(Long id, String name) {
+    TagEntity t = new TagEntity();
+    t.setId(id);
+    t.setName(name);
+    return t;
+  }
+}
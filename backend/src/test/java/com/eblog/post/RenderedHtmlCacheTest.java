@@ -0,0 +1,62 @@
+package com.eblog.post;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class RenderedHtmlCacheTest {
+
+  @Test
+  void rendersOnceForUnchangedContent() {
+    RenderedHtmlCache cache = new RenderedHtmlCache(1024);
+    AtomicInteger renders = new AtomicInteger();
+    Function<String, String> renderer = md -> {
+      renders.incrementAndGet();
+      return "<p>" + md + "</p>";
+    };
+
+    assertEquals("<p>hello</p>", cache.get(1L, "hello", renderer));
+    assertEquals("<p>hello</p>", cache.get(1L, "hello", renderer));
+
+    assertEquals(1, renders.get());
+    assertEquals(1, cache.stats().hits);
+    assertEquals(1, cache.stats().misses);
+  }
+
+  @Test
+  void rerendersWhenContentChangesOrInvalidated() {
+    RenderedHtmlCache cache = new RenderedHtmlCache(1024);
+    AtomicInteger renders = new AtomicInteger();
+    Function<String, String> renderer = md -> {
+      renders.incrementAndGet();
+      return md;
+    };
+
+    cache.get(1L, "v1", renderer);
+    assertEquals("v2", cache.get(1L, "v2", renderer));
+    cache.invalidate(1L);
+    cache.get(1L, "v2", renderer);
+
+    assertEquals(3, renders.get());
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedWhenOverCapacity() {
+    RenderedHtmlCache cache = new RenderedHtmlCache(10);
+    Function<String, String> renderer = md -> md;
+
+    cache.get(1L, "aaaa", renderer);
+    cache.get(2L, "bbbb", renderer);
+    cache.get(1L, "aaaa", renderer);
+    cache.get(3L, "cccc", renderer);
+
+    RenderedHtmlCache.Stats stats = cache.stats();
+    assertEquals(2, stats.entries);
+    assertEquals(8, stats.totalChars);
+    assertEquals(1, stats.evictions);
+    cache.get(1L, "aaaa", renderer);
+    assertEquals(2, cache.stats().hits);
+  }
+}
@@ -0,0 +1,90 @@
+package com.eblog.post;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ViewCountBufferTest {
+
+  @Mock
+  private PostMapper postMapper;
+
+  private ViewCountBuffer buffer;
+
+  @BeforeEach
+  void setup() {
+    buffer = new ViewCountBuffer(postMapper);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void aggregatesViewsIntoSingleBatchUpdate() {
+    buffer.record(1L);
+    buffer.record(1L);
+    buffer.record(2L);
+
+    assertEquals(3, buffer.stats().pendingViews);
+    assertEquals(2, buffer.flush());
+
+    ArgumentCaptor<List<ViewCountBuffer.ViewDelta>> captor = ArgumentCaptor.forClass(List.class);
+    verify(postMapper, times(1)).addViewCounts(captor.capture());
+    long total = captor.getValue().stream().mapToLong(ViewCountBuffer.ViewDelta::getDelta).sum();
+    assertEquals(3, total);
+    assertEquals(0, buffer.stats().pendingViews);
+  }
+
+  @Test
+  void keepsDeltasWhenFlushFails() {
+    when(postMapper.addViewCounts(anyList())).thenThrow(new RuntimeException("db down"));
+    buffer.record(5L);
+
+    assertEquals(0, buffer.flush());
+
+    assertEquals(1, buffer.stats().pendingViews);
+    assertEquals(1, buffer.stats().flushFailures);
+  }
+
+  @Test
+  void skipsDatabaseWhenNothingPending() {
+    assertEquals(0, buffer.flush());
+    verify(postMapper, never()).addViewCounts(anyList());
+  }
+
+  @Test
+  void keepsViewsRecordedWhileFlushing() throws Exception {
+    AtomicLong persisted = new AtomicLong();
+    when(postMapper.addViewCounts(anyList())).thenAnswer(inv -> {
+      List<ViewCountBuffer.ViewDelta> batch = inv.getArgument(0);
+      batch.forEach(d -> persisted.addAndGet(d.getDelta()));
+      return batch.size();
+    });
+
+    Thread viewer = new Thread(() -> {
+      for (int i = 0; i < 100_000; i++) {
+        buffer.record((long) (i % 3));
+      }
+    });
+    viewer.start();
+    while (viewer.isAlive()) {
+      buffer.flush();
+    }
+    viewer.join();
+    buffer.flush();
+
+    assertEquals(100_000, persisted.get());
+    assertEquals(0, buffer.stats().pendingViews);
+  }
+}
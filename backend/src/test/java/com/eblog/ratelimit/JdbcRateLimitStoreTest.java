@@ -0,0 +1,74 @@
+package com.eblog.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class JdbcRateLimitStoreTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private JdbcRateLimitStore store;
+  private final RateLimitPolicy policy = RateLimitPolicy.of("login", 3, 60);
+
+  @BeforeEach
+  void setup() {
+    DriverManagerDataSource ds = new DriverManagerDataSource(
+        "jdbc:h2:mem:ratelimit;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE", "sa", "");
+    jdbcTemplate = new JdbcTemplate(ds);
+    jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS rate_limit_counters ("
+        + "policy VARCHAR(64) NOT NULL, limit_key VARCHAR(191) NOT NULL, window_start BIGINT NOT NULL, "
+        + "current_count INT NOT NULL DEFAULT 0, previous_count INT NOT NULL DEFAULT 0, expires_at BIGINT NOT NULL, "
+        + "PRIMARY KEY (policy, limit_key))");
+    store = new JdbcRateLimitStore(jdbcTemplate);
+  }
+
+  @AfterEach
+  void cleanup() {
+    jdbcTemplate.execute("DROP TABLE rate_limit_counters");
+  }
+
+  @Test
+  void sharesLimitAcrossStoreInstances() {
+    JdbcRateLimitStore otherNode = new JdbcRateLimitStore(jdbcTemplate);
+    long now = 1_000_000L;
+
+    assertTrue(store.tryAcquire(policy, "1.2.3.4", now));
+    assertTrue(otherNode.tryAcquire(policy, "1.2.3.4", now));
+    assertTrue(store.tryAcquire(policy, "1.2.3.4", now));
+    assertFalse(otherNode.tryAcquire(policy, "1.2.3.4", now));
+
+    // 被拒绝的请求不计数
+    Integer count = jdbcTemplate.queryForObject(
+        "SELECT current_count FROM rate_limit_counters WHERE policy = 'login' AND limit_key = '1.2.3.4'", Integer.class);
+    assertEquals(3, count);
+  }
+
+  @Test
+  void rollsWindowsAndWeightsPreviousCount() {
+    long windowStart = 1_020_000L;
+    for (int i = 0; i < 3; i++) {
+      assertTrue(store.tryAcquire(policy, "k", windowStart + 30_000));
+    }
+
+    long halfIntoNext = windowStart + 90_000;
+    assertTrue(store.tryAcquire(policy, "k", halfIntoNext));
+    assertFalse(store.tryAcquire(policy, "k", halfIntoNext));
+
+    assertTrue(store.tryAcquire(policy, "k", windowStart + 300_000));
+  }
+
+  @Test
+  void sweepDeletesExpiredRows() {
+    store.tryAcquire(policy, "a", 0L);
+    store.tryAcquire(policy, "b", 600_000L);
+
+    assertEquals(1, store.sweep(600_000L));
+    assertEquals(1, store.stats().keys);
+  }
+}
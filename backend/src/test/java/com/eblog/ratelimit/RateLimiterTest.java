@@ -0,0 +1,112 @@
+package com.eblog.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+  private final AtomicLong now = new AtomicLong(1_000_000L);
+  private final RateLimiter limiter = new RateLimiter(now::get, 1000);
+  private final RateLimitPolicy policy = RateLimitPolicy.of("comment", 3, 60);
+
+  @Test
+  void blocksWithinWindowAndRecoversAfterIt() {
+    for (int i = 0; i < 3; i++) {
+      assertTrue(limiter.tryAcquire(policy, "7"));
+    }
+    assertFalse(limiter.tryAcquire(policy, "7"));
+
+    // 两个窗口之后上一窗口的计数已完全滑出
+    now.addAndGet(120_000);
+    assertTrue(limiter.tryAcquire(policy, "7"));
+  }
+
+  @Test
+  void weightsPreviousWindowBySlidingOverlap() {
+    long windowStart = 1_020_000L;
+    now.set(windowStart + 30_000);
+    for (int i = 0; i < 3; i++) {
+      assertTrue(limiter.tryAcquire(policy, "7"));
+    }
+
+    // 下一窗口过半：上一窗口 3 次按 50% 计入，估算 1.5，还可以再通过 1 次
+    now.set(windowStart + 60_000 + 30_000);
+    assertTrue(limiter.tryAcquire(policy, "7"));
+    assertFalse(limiter.tryAcquire(policy, "7"));
+  }
+
+  @Test
+  void policiesAndKeysAreIsolated() {
+    RateLimitPolicy like = RateLimitPolicy.of("like", 1, 60);
+    assertTrue(limiter.tryAcquire(like, "7"));
+    assertFalse(limiter.tryAcquire(like, "7"));
+    assertTrue(limiter.tryAcquire(like, "8"));
+    assertTrue(limiter.tryAcquire(policy, "7"));
+  }
+
+  @Test
+  void sweepRemovesIdleKeys() {
+    limiter.tryAcquire(policy, "7");
+    now.addAndGet(60_000);
+    limiter.tryAcquire(policy, "8");
+    now.addAndGet(60_000);
+
+    assertEquals(1, limiter.sweep());
+    assertEquals(1, limiter.size());
+  }
+
+  @Test
+  void hardCapEvictsUnblockedKeysButKeepsBlockedOnes() {
+    RateLimiter small = new RateLimiter(now::get, 10);
+    RateLimitPolicy login = RateLimitPolicy.of("login", 2, 300);
+    assertTrue(small.tryAcquire(login, "attacker"));
+    assertTrue(small.tryAcquire(login, "attacker"));
+    assertFalse(small.tryAcquire(login, "attacker"));
+
+    for (int i = 0; i < 50; i++) {
+      now.incrementAndGet();
+      assertTrue(small.tryAcquire(login, "ip-" + i));
+    }
+
+    assertTrue(small.size() <= 10);
+    assertFalse(small.tryAcquire(login, "attacker"));
+    assertTrue(small.stats().evicted > 0);
+    assertEquals(0, small.stats().evictedBlocked);
+  }
+
+  @Test
+  void admitsNewKeysWhenEveryKeyIsBlocked() {
+    RateLimiter small = new RateLimiter(now::get, 2);
+    RateLimitPolicy strict = RateLimitPolicy.of("strict", 1, 300);
+    small.tryAcquire(strict, "a");
+    now.incrementAndGet();
+    small.tryAcquire(strict, "b");
+    now.incrementAndGet();
+
+    // 表满且全部处于限流状态：淘汰最久未访问的限流 key，新 key 照常放行并计数
+    assertTrue(small.tryAcquire(strict, "c"));
+    assertFalse(small.tryAcquire(strict, "c"));
+    assertFalse(small.tryAcquire(strict, "b"));
+    assertEquals(1, small.stats().evictedBlocked);
+  }
+
+  @Test
+  void capIsPerPolicySoAFloodDoesNotSpillOver() {
+    RateLimiter small = new RateLimiter(now::get, 5);
+    RateLimitPolicy login = RateLimitPolicy.of("login", 1, 300);
+    RateLimitPolicy like = RateLimitPolicy.of("like", 1, 300);
+    assertTrue(small.tryAcquire(like, "7"));
+
+    for (int i = 0; i < 100; i++) {
+      now.incrementAndGet();
+      small.tryAcquire(login, "ip-" + i);
+    }
+
+    assertFalse(small.tryAcquire(like, "7"));
+    assertTrue(small.tryAcquire(like, "8"));
+  }
+}
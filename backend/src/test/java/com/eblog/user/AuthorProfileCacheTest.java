@@ -0,0 +1,56 @@
+package com.eblog.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class AuthorProfileCacheTest {
+
+  private static AuthorProfileResolver.AuthorProfile profile(long id) {
+    UserEntity u = new UserEntity();
+    u.setId(id);
+    u.setNickname("u" + id);
+    return AuthorProfileResolver.AuthorProfile.of(id, u);
+  }
+
+  @Test
+  void expiresEntriesAfterTtl() {
+    AtomicLong now = new AtomicLong(0);
+    AuthorProfileCache cache = new AuthorProfileCache(10, 60, now::get);
+
+    cache.put(profile(1L));
+    assertNotNull(cache.get(1L));
+    now.set(60_000);
+    assertNull(cache.get(1L));
+
+    assertEquals(1, cache.stats().hits);
+    assertEquals(1, cache.stats().misses);
+    assertEquals(0, cache.stats().entries);
+  }
+
+  @Test
+  void staysWithinMaxEntries() {
+    AuthorProfileCache cache = new AuthorProfileCache(3, 60, () -> 0L);
+    for (long i = 1; i <= 10; i++) {
+      cache.put(profile(i));
+    }
+
+    assertEquals(3, cache.stats().entries);
+    assertEquals(7, cache.stats().evictions);
+    assertNotNull(cache.get(10L));
+  }
+
+  @Test
+  void invalidateDropsEntry() {
+    AuthorProfileCache cache = new AuthorProfileCache(10, 60, () -> 0L);
+    cache.put(profile(1L));
+
+    cache.invalidate(1L);
+
+    assertNull(cache.get(1L));
+    assertEquals(1, cache.stats().invalidations);
+  }
+}
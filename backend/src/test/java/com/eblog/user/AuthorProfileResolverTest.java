@@ -0,0 +1,69 @@
+package com.eblog.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorProfileResolverTest {
+
+  @Mock
+  private UserMapper userMapper;
+
+  private AuthorProfileResolver resolver;
+
+  @BeforeEach
+  void setup() {
+    resolver = new AuthorProfileResolver(userMapper, new AuthorProfileCache(100, 60));
+  }
+
+  @Test
+  void resolvesWholePageWithSingleQuery() {
+    UserEntity atlas = new UserEntity();
+    atlas.setId(7L);
+    atlas.setNickname(" Atlas ");
+    atlas.setAvatarUrl("https://example.com/a.png");
+    when(userMapper.selectProfilesByIds(anyCollection())).thenReturn(List.of(atlas));
+
+    Map<Long, AuthorProfileResolver.AuthorProfile> res = resolver.resolve(Arrays.asList(7L, 8L, 7L, null));
+
+    verify(userMapper, times(1)).selectProfilesByIds(anyCollection());
+    assertEquals(2, res.size());
+    assertEquals("Atlas", res.get(7L).getNickname());
+    assertEquals("https://example.com/a.png", res.get(7L).getAvatarUrl());
+    assertEquals("#8", res.get(8L).getNickname());
+    assertNull(res.get(8L).getAvatarUrl());
+  }
+
+  @Test
+  void servesRepeatedPagesFromCache() {
+    UserEntity atlas = new UserEntity();
+    atlas.setId(7L);
+    atlas.setNickname("Atlas");
+    when(userMapper.selectProfilesByIds(anyCollection())).thenReturn(List.of(atlas));
+
+    resolver.resolve(List.of(7L));
+    Map<Long, AuthorProfileResolver.AuthorProfile> res = resolver.resolve(List.of(7L));
+
+    verify(userMapper, times(1)).selectProfilesByIds(anyCollection());
+    assertEquals("Atlas", res.get(7L).getNickname());
+  }
+
+  @Test
+  void skipsQueryForEmptyPage() {
+    assertEquals(0, resolver.resolve(List.of()).size());
+    verify(userMapper, times(0)).selectProfilesByIds(anyCollection());
+  }
+}